@@ -0,0 +1,164 @@
+package org.zerofour.swagger2.converter.generator;
+
+import io.swagger.models.Swagger;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.zerofour.swagger2.converter.cache.OAS3Cache;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+import org.zerofour.swagger2.converter.cache.OAS3DocumentLoader;
+import org.zerofour.swagger2.converter.oas3.OAS3Converter;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.json.JacksonModuleRegistrar;
+import springfox.documentation.swagger2.mappers.ServiceModelToSwagger2Mapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Converts every Docket group of an application at build time and writes the minified documents,
+ * with their pre-compressed variants, for {@link OAS3DocumentLoader}. The documents of a basePath
+ * other than "/" are written to its {@link OAS3DocumentLoader#directory(String) directory}.
+ *
+ * The application context is refreshed on a mock servlet context, the way a Spring MVC test would.
+ * It is built apart from the library, as the "generator" jar, and run on the application's test runtime
+ * classpath with that jar added, for example by a Gradle JavaExec task whose output is packaged in the jar
+ * under META-INF/oas3. Generate with --streaming when the application serves with streaming = true, so the
+ * documents have the field order, and ETags, of the ones it would convert.
+ *
+ * <pre>
+ * java OAS3Generator [--base-path=/] [--encoding=gzip ...] [--prune-components] [--streaming] &lt;output directory&gt; &lt;configuration class&gt;...
+ * </pre>
+ */
+public final class OAS3Generator {
+	private static final String DEFAULT_BASE_PATH = "/";
+
+	private final String basePath;
+	private final String[] encodings;
+	private boolean pruneComponents = false;
+	private boolean streaming = false;
+
+	public OAS3Generator(String basePath, String... encodings) {
+		if(OAS3DocumentLoader.directory(basePath) == null) {
+			throw new IllegalArgumentException("Not a basePath documents can be generated for: " + basePath);
+		}
+		this.basePath = basePath;
+		this.encodings = encodings.clone();
+	}
+
+	/**
+	 * Prunes the generated documents as @EnableSwagger2OAS3(pruneComponents = true) does.
+	 */
+	public void setPruneComponents(boolean pruneComponents) {
+		this.pruneComponents = pruneComponents;
+	}
+
+	/**
+	 * Converts as @EnableSwagger2OAS3(streaming = true) does.
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	public static void main(String[] args) throws Exception {
+		String basePath = DEFAULT_BASE_PATH;
+		List<String> encodings = new ArrayList<>();
+		boolean pruneComponents = false;
+		boolean streaming = false;
+		List<String> arguments = new ArrayList<>();
+		for(String arg: args) {
+			if(arg.startsWith("--base-path=")) {
+				basePath = arg.substring("--base-path=".length());
+			}
+			else if(arg.startsWith("--encoding=")) {
+				encodings.add(arg.substring("--encoding=".length()));
+			}
+			else if(arg.equals("--prune-components")) {
+				pruneComponents = true;
+			}
+			else if(arg.equals("--streaming")) {
+				streaming = true;
+			}
+			else {
+				arguments.add(arg);
+			}
+		}
+		if(arguments.size() < 2) {
+			System.err.println("usage: OAS3Generator [--base-path=/] [--encoding=gzip|deflate ...] [--prune-components] [--streaming] <output directory> <configuration class>...");
+			System.exit(1);
+		}
+
+		Class<?>[] configurations = new Class<?>[arguments.size() - 1];
+		for(int i = 1; i < arguments.size(); i++) {
+			configurations[i - 1] = ClassUtils.forName(arguments.get(i), ClassUtils.getDefaultClassLoader());
+		}
+		OAS3Generator generator = new OAS3Generator(basePath, encodings.toArray(new String[0]));
+		generator.setPruneComponents(pruneComponents);
+		generator.setStreaming(streaming);
+		List<Path> files = generator.generate(Paths.get(arguments.get(0)), configurations);
+		for(Path file: files) {
+			System.out.println("Generated " + file);
+		}
+	}
+
+	/**
+	 * Refreshes an application context of the configurations and writes the documents of its Docket groups.
+	 */
+	public List<Path> generate(Path outputDirectory, Class<?>... configurations) throws IOException {
+		try(AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext()) {
+			context.setServletContext(new MockServletContext());
+			context.register(configurations);
+			context.refresh();
+			return generate(outputDirectory,
+				context.getBean(DocumentationCache.class),
+				context.getBean(ServiceModelToSwagger2Mapper.class),
+				context.getBeanProvider(JacksonModuleRegistrar.class).orderedStream().collect(Collectors.toList()));
+		}
+	}
+
+	public List<Path> generate(Path outputDirectory,
+	                           DocumentationCache documentationCache,
+	                           ServiceModelToSwagger2Mapper mapper,
+	                           List<JacksonModuleRegistrar> moduleRegistrars) throws IOException {
+		// a converter of its own, the application's service may serve previously generated documents
+		OAS3Converter converter = new OAS3Converter();
+		converter.setPruneComponents(pruneComponents);
+		OAS3DocumentService service = new OAS3DocumentService(new OAS3Cache<>(), converter);
+		service.setJacksonModuleRegistrars(moduleRegistrars);
+		service.setContentEncodings(encodings);
+		service.setStreaming(streaming);
+
+		Path directory = outputDirectory.resolve(OAS3DocumentLoader.directory(basePath));
+		Files.createDirectories(directory);
+		List<Path> files = new ArrayList<>();
+		for(Map.Entry<String,Documentation> group: documentationCache.all().entrySet()) {
+			OAS3Document document = service.convert(new OAS3CacheKey(group.getKey(), basePath), () -> {
+				Swagger swagger = mapper.mapDocumentation(group.getValue());
+				swagger.basePath(basePath);
+				return swagger;
+			});
+			if(document == null) {
+				throw new IllegalStateException("Failed to convert documentation group '" + group.getKey() + "'");
+			}
+
+			files.add(Files.write(directory.resolve(OAS3DocumentLoader.fileName(group.getKey())),
+				document.getBody()));
+			for(String encoding: document.getEncodings()) {
+				if(!encoding.equals(OAS3Document.IDENTITY)) {
+					files.add(Files.write(directory.resolve(OAS3DocumentLoader.fileName(group.getKey(), encoding)),
+						document.getBody(encoding)));
+				}
+			}
+		}
+		return files;
+	}
+}
@@ -0,0 +1,105 @@
+package org.zerofour.swagger2.converter.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.zerofour.swagger2.converter.oas3.JSON;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lossless number model of {@link JSON#readValue(String)} with the previous reader,
+ * which truncated every number to an int, on number heavy documents.
+ * Run with the gc profiler (the default for the jmh task) to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JSONNumberBenchmark {
+
+	@Param({"1000"})
+	public int operations;
+
+	@Param({"NUMERIC", "WIDE"})
+	public Swagger2Fixtures.Shape shape;
+
+	private String document;
+	private ObjectMapper truncatingMapper;
+
+	@Setup
+	public void setup() throws IOException {
+		document = Swagger2Fixtures.generate(operations, shape);
+		truncatingMapper = new ObjectMapper();
+		truncatingMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		truncatingMapper.registerModule(new SimpleModule()
+			.addDeserializer(Object.class, new TruncatingDeserializer()));
+	}
+
+	@Benchmark
+	public JSON lossless() throws IOException {
+		return JSON.readValue(document);
+	}
+
+	@Benchmark
+	public JSON truncating() throws IOException {
+		return truncatingMapper.readValue(document, JSON.class);
+	}
+
+	// the one-pass deserializer JSON used before, kept as the baseline
+	private static class TruncatingDeserializer extends JsonDeserializer<Object> {
+		@Override
+		public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			return readValue(p, p.currentToken());
+		}
+
+		private Object readValue(JsonParser p, JsonToken token) throws IOException {
+			switch(token) {
+				case START_OBJECT:
+				case FIELD_NAME:
+					return readObject(p, token);
+				case START_ARRAY:
+					return readArray(p);
+				case VALUE_STRING:
+					return p.getText();
+				case VALUE_NUMBER_INT:
+				case VALUE_NUMBER_FLOAT:
+					return p.getNumberValue().intValue();
+				case VALUE_TRUE:
+					return Boolean.TRUE;
+				case VALUE_FALSE:
+					return Boolean.FALSE;
+			}
+			return null;
+		}
+
+		private JSON readObject(JsonParser p, JsonToken token) throws IOException {
+			JSON json = new JSON();
+			String name = (token == JsonToken.START_OBJECT) ? p.nextFieldName() : p.getCurrentName();
+			while(name != null) {
+				json.put(name, readValue(p, p.nextToken()));
+				name = p.nextFieldName();
+			}
+			return json;
+		}
+
+		private List<Object> readArray(JsonParser p) throws IOException {
+			List<Object> list = new ArrayList<>();
+			JsonToken token;
+			while((token = p.nextToken()) != JsonToken.END_ARRAY) {
+				list.add(readValue(p, token));
+			}
+			return list;
+		}
+	}
+}
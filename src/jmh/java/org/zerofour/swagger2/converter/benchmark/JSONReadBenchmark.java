@@ -0,0 +1,82 @@
+package org.zerofour.swagger2.converter.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.zerofour.swagger2.converter.oas3.JSON;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JSON#readValue(String)} with the previous readTree/treeToValue deserializer.
+ * Run with the gc profiler (the default for the jmh task) to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JSONReadBenchmark {
+
+	@Param({"1000"})
+	public int operations;
+
+	@Param({"4"})
+	public int depth;
+
+	private String document;
+	private ObjectMapper treeMapper;
+
+	@Setup
+	public void setup() throws IOException {
+		document = Swagger2Fixtures.generate(operations, operations / 4, depth);
+		treeMapper = new ObjectMapper();
+		treeMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		treeMapper.registerModule(new SimpleModule()
+			.addDeserializer(Object.class, new TreeDeserializer()));
+	}
+
+	@Benchmark
+	public JSON onePass() throws IOException {
+		return JSON.readValue(document);
+	}
+
+	@Benchmark
+	public JSON readTree() throws IOException {
+		return treeMapper.readValue(document, JSON.class);
+	}
+
+	// the deserializer JSON used before, kept as the baseline
+	private static class TreeDeserializer extends JsonDeserializer<Object> {
+		@Override
+		public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			ObjectCodec objectCodec = p.getCodec();
+			JsonNode jsonNode = objectCodec.readTree(p);
+
+			switch(jsonNode.getNodeType()) {
+				case POJO:
+				case OBJECT:
+					return objectCodec.treeToValue(jsonNode, JSON.class);
+				case ARRAY:
+					return objectCodec.treeToValue(jsonNode, List.class);
+				case BINARY:
+				case STRING:
+					return jsonNode.asText();
+				case NUMBER:
+					return jsonNode.asInt();
+				case BOOLEAN:
+					return jsonNode.asBoolean();
+			}
+			return null;
+		}
+	}
+}
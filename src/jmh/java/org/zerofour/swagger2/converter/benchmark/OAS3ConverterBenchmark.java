@@ -0,0 +1,85 @@
+package org.zerofour.swagger2.converter.benchmark;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openjdk.jmh.annotations.*;
+import org.zerofour.swagger2.converter.advice.OAS3ConverterAdvice;
+import org.zerofour.swagger2.converter.oas3.JSON;
+import org.zerofour.swagger2.converter.oas3.OAS3Converter;
+import springfox.documentation.spring.web.json.Json;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of each stage of the conversion pipeline, and of the whole advice.
+ * The jmh task runs it with the gc profiler for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OAS3ConverterBenchmark {
+
+	@Param({"100", "1000", "10000"})
+	public int operations;
+
+	@Param({"DEEP", "WIDE"})
+	public Swagger2Fixtures.Shape shape;
+
+	private String document;
+	private JSON oas2;
+	private OpenAPI openAPI;
+	private OAS3Converter oas3Converter;
+	private OAS3ConverterAdvice cachedAdvice;
+
+	@Setup
+	public void setup() throws IOException {
+		document = Swagger2Fixtures.generate(operations, shape);
+		oas2 = JSON.readValue(document);
+		oas3Converter = new OAS3Converter();
+		openAPI = oas3Converter.convertOpenAPI(oas2);
+		cachedAdvice = new OAS3ConverterAdvice();
+		beforeBodyWrite(cachedAdvice);
+	}
+
+	@Benchmark
+	public JSON readValue() throws IOException {
+		return JSON.readValue(document);
+	}
+
+	@Benchmark
+	public OpenAPI convertOpenAPI() {
+		return oas3Converter.convertOpenAPI(oas2);
+	}
+
+	@Benchmark
+	public byte[] writeValue() throws IOException {
+		return JSON.writeValueAsBytes(openAPI);
+	}
+
+	// the previous write stage, through a JSON tree and a String, kept as the baseline
+	@Benchmark
+	public String writeValueTree() throws IOException {
+		return JSON.readValue(openAPI).writeValue();
+	}
+
+	// a cache miss: parse, convert, serialize and compress
+	@Benchmark
+	public StubServerHttpResponse beforeBodyWrite() {
+		return beforeBodyWrite(new OAS3ConverterAdvice());
+	}
+
+	@Benchmark
+	public StubServerHttpResponse beforeBodyWriteCached() {
+		return beforeBodyWrite(cachedAdvice);
+	}
+
+	private StubServerHttpResponse beforeBodyWrite(OAS3ConverterAdvice advice) {
+		StubServerHttpResponse response = new StubServerHttpResponse();
+		advice.beforeBodyWrite(new Json(document), null, null, null,
+			new StubServerHttpRequest("http://localhost:8080/v2/api-docs"), response);
+		return response;
+	}
+}
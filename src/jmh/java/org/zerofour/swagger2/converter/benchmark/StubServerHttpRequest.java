@@ -0,0 +1,65 @@
+package org.zerofour.swagger2.converter.benchmark;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.ServerHttpAsyncRequestControl;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+
+/**
+ * A GET request for the benchmarks, without a servlet container.
+ */
+public class StubServerHttpRequest implements ServerHttpRequest {
+	private final URI uri;
+	private final HttpHeaders headers = new HttpHeaders();
+
+	public StubServerHttpRequest(String uri) {
+		this.uri = URI.create(uri);
+	}
+
+	@Override
+	public String getMethodValue() {
+		return HttpMethod.GET.name();
+	}
+
+	@Override
+	public URI getURI() {
+		return uri;
+	}
+
+	@Override
+	public HttpHeaders getHeaders() {
+		return headers;
+	}
+
+	@Override
+	public InputStream getBody() {
+		return new ByteArrayInputStream(new byte[0]);
+	}
+
+	@Override
+	public Principal getPrincipal() {
+		return null;
+	}
+
+	@Override
+	public InetSocketAddress getLocalAddress() {
+		return InetSocketAddress.createUnresolved(uri.getHost(), uri.getPort());
+	}
+
+	@Override
+	public InetSocketAddress getRemoteAddress() {
+		return InetSocketAddress.createUnresolved("localhost", 0);
+	}
+
+	@Override
+	public ServerHttpAsyncRequestControl getAsyncRequestControl(ServerHttpResponse response) {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,59 @@
+package org.zerofour.swagger2.converter.benchmark;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpResponse;
+
+import java.io.OutputStream;
+
+/**
+ * A response that counts the bytes written to it instead of keeping them.
+ */
+public class StubServerHttpResponse implements ServerHttpResponse {
+	private final HttpHeaders headers = new HttpHeaders();
+	private HttpStatus status = HttpStatus.OK;
+	private long written = 0;
+
+	private final OutputStream body = new OutputStream() {
+		@Override
+		public void write(int b) {
+			written++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			written += len;
+		}
+	};
+
+	@Override
+	public void setStatusCode(HttpStatus status) {
+		this.status = status;
+	}
+
+	public HttpStatus getStatusCode() {
+		return status;
+	}
+
+	public long getWritten() {
+		return written;
+	}
+
+	@Override
+	public HttpHeaders getHeaders() {
+		return headers;
+	}
+
+	@Override
+	public OutputStream getBody() {
+		return body;
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void close() {
+	}
+}
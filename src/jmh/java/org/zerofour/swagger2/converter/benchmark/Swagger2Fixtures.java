@@ -0,0 +1,187 @@
+package org.zerofour.swagger2.converter.benchmark;
+
+import org.zerofour.swagger2.converter.oas3.JSON;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generates springfox shaped Swagger 2.0 documents for the benchmarks.
+ */
+public final class Swagger2Fixtures {
+
+	/**
+	 * Shapes of "definitions": DEEP models nest inline objects eight levels down,
+	 * WIDE models have forty scalar properties on a single level,
+	 * NUMERIC models are WIDE with minimum/maximum/multipleOf and long or decimal examples on every property.
+	 */
+	public enum Shape {
+		DEEP(8, 0, false),
+		WIDE(0, 40, false),
+		NUMERIC(0, 40, true);
+
+		private final int depth;
+		private final int width;
+		private final boolean numeric;
+
+		Shape(int depth, int width, boolean numeric) {
+			this.depth = depth;
+			this.width = width;
+			this.numeric = numeric;
+		}
+	}
+
+	private Swagger2Fixtures() {
+	}
+
+	/**
+	 * A document with the given number of operations and one model per four operations.
+	 */
+	public static String generate(int operations, Shape shape) throws IOException {
+		return generate(operations, Math.max(1, operations / 4), shape.depth, shape.width, shape.numeric);
+	}
+
+	/**
+	 * @param operations number of operations, two per path
+	 * @param definitions number of models in "definitions"
+	 * @param depth nesting depth of the inline object properties of each model
+	 */
+	public static String generate(int operations, int definitions, int depth) throws IOException {
+		return generate(operations, definitions, depth, 0);
+	}
+
+	/**
+	 * @param operations number of operations, two per path
+	 * @param definitions number of models in "definitions"
+	 * @param depth nesting depth of the inline object properties of each model
+	 * @param width number of extra scalar properties of each model
+	 */
+	public static String generate(int operations, int definitions, int depth, int width) throws IOException {
+		return generate(operations, definitions, depth, width, false);
+	}
+
+	private static String generate(int operations, int definitions, int depth, int width, boolean numeric)
+		throws IOException {
+		JSON swagger = new JSON();
+		swagger.put("swagger", "2.0");
+		swagger.put("info", object("title", "Api Documentation", "description", "Api Documentation", "version", "1.0"));
+		swagger.put("host", "localhost:8080");
+		swagger.put("basePath", "/");
+
+		List<Object> tags = new ArrayList<>();
+		for(int i = 0; i < Math.max(1, operations / 20); i++) {
+			tags.add(object("name", "controller-" + i, "description", "Controller " + i));
+		}
+		swagger.put("tags", tags);
+
+		JSON paths = new JSON();
+		for(int i = 0; i < operations; i += 2) {
+			String model = "Model" + (i % Math.max(1, definitions));
+			String tag = "controller-" + (i / 20);
+			JSON path = new JSON();
+			path.put("get", operation(tag, "get" + i, model, false, numeric));
+			if(i + 1 < operations) {
+				path.put("post", operation(tag, "post" + i, model, true, numeric));
+			}
+			paths.put("/resource" + i + "/{id}", path);
+		}
+		swagger.put("paths", paths);
+
+		JSON securityDefinitions = new JSON();
+		securityDefinitions.put("oauth", object("type", "oauth2", "authorizationUrl", "http://auth/authorize",
+			"flow", "implicit", "scopes", object("read", "read access", "write", "write access")));
+		securityDefinitions.put("apiKey", object("type", "apiKey", "name", "api_key", "in", "header"));
+		swagger.put("securityDefinitions", securityDefinitions);
+
+		JSON models = new JSON();
+		for(int i = 0; i < definitions; i++) {
+			JSON model = model(depth, width, i, definitions, numeric);
+			model.put("title", "Model" + i);
+			models.put("Model" + i, model);
+		}
+		models.put("Error", object("type", "object", "title", "Error", "properties",
+			object("code", object("type", "string"), "message", object("type", "string"))));
+		swagger.put("definitions", models);
+
+		return swagger.writeValue();
+	}
+
+	private static JSON operation(String tag, String operationId, String model, boolean withBody, boolean numeric) {
+		JSON operation = new JSON();
+		operation.put("tags", Collections.singletonList(tag));
+		operation.put("summary", operationId);
+		operation.put("operationId", operationId + "UsingGET");
+		operation.put("produces", Collections.singletonList("*/*"));
+		List<Object> parameters = new ArrayList<>();
+		parameters.add(object("name", "id", "in", "path", "description", "id", "required", true,
+			"type", "integer", "format", "int64"));
+		JSON page = object("name", "page", "in", "query", "required", false,
+			"type", "integer", "format", "int32");
+		if(numeric) {
+			page.putAll(object("minimum", 0, "maximum", 10000, "default", 0));
+			parameters.add(object("name", "ratio", "in", "query", "required", false, "type", "number",
+				"minimum", new BigDecimal("0.05"), "exclusiveMinimum", true, "maximum", new BigDecimal("99.95")));
+		}
+		parameters.add(page);
+		parameters.add(object("name", "sort", "in", "query", "required", false,
+			"type", "array", "items", object("type", "string"), "collectionFormat", "multi"));
+		if(withBody) {
+			operation.put("consumes", Collections.singletonList("application/json"));
+			parameters.add(object("in", "body", "name", "body", "required", true,
+				"schema", object("$ref", "#/definitions/" + model)));
+		}
+		operation.put("parameters", parameters);
+		JSON responses = new JSON();
+		responses.put("200", object("description", "OK", "schema", object("type", "object", "properties",
+			object("content", object("type", "array", "items", object("$ref", "#/definitions/" + model)),
+				"total", object("type", "integer", "format", "int64")))));
+		responses.put("401", object("description", "Unauthorized"));
+		responses.put("404", object("description", "Not Found", "schema", object("$ref", "#/definitions/Error")));
+		operation.put("responses", responses);
+		operation.put("security", Collections.singletonList(object("oauth", Arrays.asList("read"))));
+		operation.put("deprecated", false);
+		return operation;
+	}
+
+	private static JSON model(int depth, int width, int index, int definitions, boolean numeric) {
+		JSON properties = new JSON();
+		properties.put("id", object("type", "integer", "format", "int64"));
+		properties.put("name", object("type", "string"));
+		properties.put("status", object("type", "string", "enum", Arrays.asList("NEW", "ACTIVE", "CLOSED")));
+		properties.put("enabled", object("type", "boolean"));
+		properties.put("created", object("type", "string", "format", "date-time"));
+		properties.put("related", object("type", "array", "items",
+			object("$ref", "#/definitions/Model" + ((index + 1) % Math.max(1, definitions)))));
+		for(int i = 0; i < width; i++) {
+			if(numeric) {
+				properties.put("field" + i, (i % 2 == 0)
+					? object("type", "number", "format", "double", "minimum", new BigDecimal("-" + i + ".25"),
+						"maximum", new BigDecimal(i + "000.75"), "multipleOf", new BigDecimal("0.25"),
+						"example", new BigDecimal(i + ".5"))
+					: object("type", "integer", "format", "int64", "minimum", i, "maximum", Long.MAX_VALUE - i,
+						"example", 1_500_000_000_000L + i));
+			}
+			else {
+				properties.put("field" + i, (i % 2 == 0)
+					? object("type", "string", "description", "field " + i)
+					: object("type", "integer", "format", "int32", "description", "field " + i));
+			}
+		}
+		if(depth > 0) {
+			properties.put("nested", model(depth - 1, width, index, definitions, numeric));
+		}
+		return object("type", "object", "required", Collections.singletonList("id"), "properties", properties);
+	}
+
+	private static JSON object(Object... keyValues) {
+		JSON json = new JSON();
+		for(int i = 0; i < keyValues.length; i += 2) {
+			json.put((String)keyValues[i], keyValues[i + 1]);
+		}
+		return json;
+	}
+}
@@ -0,0 +1,111 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.tags.Tag;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zerofour.swagger2.converter.benchmark.Swagger2Fixtures;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ModelBinder} with the JSON.convert(Class) binding it replaced, on every schema
+ * level and tag of a document. In the oas3 package as ModelBinder is package private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelBinderBenchmark {
+
+	@Param({"1000"})
+	public int operations;
+
+	@Param({"DEEP", "WIDE"})
+	public Swagger2Fixtures.Shape shape;
+
+	// the fields of each schema level, without the nested schemas as the converter bound them before
+	private List<JSON> schemas;
+	private List<JSON> tags;
+
+	@Setup
+	public void setup() throws IOException {
+		JSON oas2 = JSON.readValue(Swagger2Fixtures.generate(operations, shape));
+		schemas = new ArrayList<>();
+		collectSchemas(oas2.get("paths"));
+		collectSchemas(oas2.get("definitions"));
+		tags = (List<JSON>)oas2.get("tags");
+	}
+
+	@Benchmark
+	public void convertValue(Blackhole blackhole) {
+		for(JSON schema: schemas) {
+			blackhole.consume(schema.convert(schemaClass((String)schema.get("type"))));
+		}
+		for(JSON tag: tags) {
+			blackhole.consume(tag.convert(Tag.class));
+		}
+	}
+
+	@Benchmark
+	public void modelBinder(Blackhole blackhole) {
+		for(JSON schema: schemas) {
+			blackhole.consume(ModelBinder.schema(schema, newSchema((String)schema.get("type"))));
+		}
+		for(JSON tag: tags) {
+			blackhole.consume(ModelBinder.tag(tag));
+		}
+	}
+
+	private void collectSchemas(Object value) {
+		if(value instanceof List) {
+			for(Object item: (List<?>)value) {
+				collectSchemas(item);
+			}
+		}
+		else if(value instanceof JSON) {
+			JSON json = (JSON)value;
+			if(json.get("type") instanceof String && !json.containsKey("in")) {
+				JSON fields = new JSON();
+				fields.putAll(json);
+				fields.remove("items");
+				fields.remove("properties");
+				fields.remove("additionalProperties");
+				schemas.add(fields);
+			}
+			for(Map.Entry<String,Object> e: json.entrySet()) {
+				collectSchemas(e.getValue());
+			}
+		}
+	}
+
+	private static Class<? extends Schema> schemaClass(String type) {
+		switch(type) {
+			case "string": return StringSchema.class;
+			case "boolean": return BooleanSchema.class;
+			case "array": return ArraySchema.class;
+			case "object": return ObjectSchema.class;
+			default: return Schema.class;
+		}
+	}
+
+	private static Schema newSchema(String type) {
+		switch(type) {
+			case "string": return new StringSchema();
+			case "boolean": return new BooleanSchema();
+			case "array": return new ArraySchema();
+			case "object": return new ObjectSchema();
+			default: return new Schema();
+		}
+	}
+}
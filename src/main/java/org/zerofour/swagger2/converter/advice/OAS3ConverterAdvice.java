@@ -1,29 +1,62 @@
 package org.zerofour.swagger2.converter.advice;
 
-import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
-import org.zerofour.swagger2.converter.oas3.JSON;
-import org.zerofour.swagger2.converter.oas3.OAS3Converter;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+import org.zerofour.swagger2.converter.oas3.OAS3PathFilter;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
 import springfox.documentation.spring.web.json.Json;
+import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.swagger.common.HostNameProvider;
 import springfox.documentation.swagger2.web.Swagger2Controller;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
+/**
+ * Serves the OAS3 document converted by an {@link OAS3DocumentService} in place of the Swagger 2.0 one
+ * of springfox's Swagger2Controller.
+ */
 @ControllerAdvice
 public class OAS3ConverterAdvice implements ResponseBodyAdvice<Json> {
+	private static final Log logger = LogFactory.getLog(OAS3ConverterAdvice.class);
 
 	private final Class<?> SWAGGER_CONTROLLER_CLASS = Swagger2Controller.class;
 	private final String SWAGGER_CONTROLLER_METHOD = "getDocumentation";
+	private final String SWAGGER_GROUP_PARAMETER = "group";
+	private final String TAG_PARAMETER = "tag";
+	private final String PATH_PREFIX_PARAMETER = "pathPrefix";
 
-	private OAS3Converter oas3Converter = new OAS3Converter();
-	private Json cachedBody = null;
+	private final OAS3DocumentService service;
+
+	public OAS3ConverterAdvice() {
+		this(new OAS3DocumentService());
+	}
+
+	public OAS3ConverterAdvice(OAS3DocumentService service) {
+		this.service = service;
+	}
+
+	public OAS3DocumentService getService() {
+		return service;
+	}
 
 	@Override
 	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
@@ -36,26 +69,144 @@ public class OAS3ConverterAdvice implements ResponseBodyAdvice<Json> {
 		return false;
 	}
 
+	/**
+	 * Writes the cached, pre-encoded document straight to the response and returns null, so the message
+	 * converter has nothing left to encode. A request whose If-None-Match matches the ETag gets a 304.
+	 * A document that is not converted, after a timeout or over a limit, is served as Swagger 2.0, but a
+	 * filtered view gets a 503 as the Swagger 2.0 document is not filtered.
+	 *
+	 * The document is always written as JSON: Swagger2Controller only produces JSON, so a request that
+	 * accepts YAML only gets a 406 before this runs. YAML is negotiated by OAS3Controller on /v3/api-docs.
+	 */
 	@Override
 	public Json beforeBodyWrite(Json body, MethodParameter returnType, MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
 
-		if(cachedBody != null) {
-			return cachedBody;
+		if(body == null) {
+			return null;
 		}
 
-		try {
-			JSON oas2 = JSON.readValue(body.value());
-			System.out.println(oas2);
-			OpenAPI openAPI = oas3Converter.convertOpenAPI(oas2);
-			if(openAPI != null) {
-				body = new Json(JSON.readValue(openAPI).writeValue());
-				cachedBody = body;
+		OAS3CacheKey key = cacheKey(request);
+		OAS3Document document = service.convert(key, body, service.getConversionTimeout());
+		if(document == null) {
+			if(key.getFilter() != null) {
+				response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+				return null;
 			}
+			return body;
+		}
+
+		try {
+			// the Swagger 2.0 response does not vary by Accept, whatever representations the document has
+			writeDocument(document, MediaType.APPLICATION_JSON_UTF8,
+				(document.getEncodings().size() > 1) ? HttpHeaders.ACCEPT_ENCODING : null, request, response);
 		} catch (IOException e) {
-			e.printStackTrace();
+			logger.warn("Failed to write the OAS3 document", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the variant of the document the request accepts, JSON or YAML, or a 304 if the request already has it.
+	 * A single byte range of the variant is served as a 206, several ranges are served as the whole variant.
+	 */
+	public void writeDocument(OAS3Document document, ServerHttpRequest request, ServerHttpResponse response) throws IOException {
+		MediaType mediaType = service.selectMediaType(document, request.getHeaders());
+		writeDocument(service.representation(document, mediaType), mediaType, service.vary(document), request, response);
+	}
+
+	private void writeDocument(OAS3Document document, MediaType mediaType, String vary,
+	                           ServerHttpRequest request, ServerHttpResponse response) throws IOException {
+		String encoding = service.selectEncoding(document, request.getHeaders());
+		HttpHeaders headers = response.getHeaders();
+		headers.setETag(document.getETag(encoding));
+		if(vary != null) {
+			headers.set(HttpHeaders.VARY, vary);
+		}
+
+		if(service.isNotModified(document.getETag(encoding), request.getHeaders())) {
+			response.setStatusCode(HttpStatus.NOT_MODIFIED);
+			return;
+		}
+
+		long length = document.getContentLength(encoding);
+		headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+		HttpRange range = selectRange(document.getETag(encoding), request);
+		if(range != null && (length == 0 || range.getRangeStart(length) >= length)) {
+			headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+			response.setStatusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+			return;
+		}
+
+		headers.setContentType(mediaType);
+		if(!encoding.equals(OAS3Document.IDENTITY)) {
+			headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+		}
+		if(range == null) {
+			headers.setContentLength(length);
+			document.writeTo(encoding, response.getBody());
+			return;
+		}
+
+		long start = range.getRangeStart(length);
+		long end = range.getRangeEnd(length);
+		response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+		headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+		headers.setContentLength(end - start + 1);
+		document.writeTo(encoding, response.getBody(), start, end - start + 1);
+	}
+
+	// the single range to serve, null to serve the whole variant
+	private HttpRange selectRange(String documentETag, ServerHttpRequest request) {
+		List<HttpRange> ranges;
+		try {
+			ranges = request.getHeaders().getRange();
+		} catch (IllegalArgumentException e) {
+			// an invalid Range is ignored
+			return null;
 		}
+		if(ranges.size() != 1) {
+			return null;
+		}
+
+		// If-Range uses the strong comparison, and a date never matches as there is no Last-Modified
+		String ifRange = request.getHeaders().getFirst(HttpHeaders.IF_RANGE);
+		if(ifRange != null && !ifRange.trim().equals(documentETag)) {
+			return null;
+		}
+		return ranges.get(0);
+	}
+
+	/**
+	 * The cache key of a documentation request, from its "group", "tag" and "pathPrefix" parameters
+	 * and servlet mapping. The host is left out, as the converted document does not carry it.
+	 */
+	public OAS3CacheKey cacheKey(ServerHttpRequest request) {
+		String group = null;
+		String tag = null;
+		String pathPrefix = null;
+		UriComponents components;
+		if(request instanceof ServletServerHttpRequest) {
+			// same basePath resolution as Swagger2Controller, including X-Forwarded-* headers
+			ServletServerHttpRequest servletRequest = (ServletServerHttpRequest)request;
+			group = servletRequest.getServletRequest().getParameter(SWAGGER_GROUP_PARAMETER);
+			tag = servletRequest.getServletRequest().getParameter(TAG_PARAMETER);
+			pathPrefix = servletRequest.getServletRequest().getParameter(PATH_PREFIX_PARAMETER);
+			components = HostNameProvider.componentsFrom(servletRequest.getServletRequest(), "/");
+		}
+		else {
+			components = UriComponentsBuilder.fromHttpRequest(request).build();
+			group = components.getQueryParams().getFirst(SWAGGER_GROUP_PARAMETER);
+			tag = decode(components.getQueryParams().getFirst(TAG_PARAMETER));
+			pathPrefix = decode(components.getQueryParams().getFirst(PATH_PREFIX_PARAMETER));
+		}
+		if(group == null) {
+			group = Docket.DEFAULT_GROUP_NAME;
+		}
+		return new OAS3CacheKey(group, components.getPath(), OAS3PathFilter.of(tag, pathPrefix));
+	}
 
-		return body;
+	private static String decode(String value) {
+		return (value != null) ? StringUtils.uriDecode(value, StandardCharsets.UTF_8) : null;
 	}
 
 }
@@ -1,7 +1,9 @@
 package org.zerofour.swagger2.converter.annotation;
 
 import org.springframework.context.annotation.Import;
-import org.zerofour.swagger2.converter.configuration.OAS3Configuration;
+import org.zerofour.swagger2.converter.cache.OAS3Cache;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+import org.zerofour.swagger2.converter.configuration.OAS3ConfigurationSelector;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
@@ -10,6 +12,100 @@ import java.lang.annotation.Target;
 @Retention(value = java.lang.annotation.RetentionPolicy.RUNTIME)
 @Target(value = { java.lang.annotation.ElementType.TYPE })
 @Documented
-@Import({OAS3Configuration.class})
+@Import({OAS3ConfigurationSelector.class})
 public @interface EnableSwagger2OAS3 {
+	/**
+	 * Maximum number of converted documents kept in memory, one per group, host and basePath.
+	 */
+	int cacheSize() default OAS3Cache.DEFAULT_MAX_SIZE;
+
+	/**
+	 * Maximum number of filtered views ("?tag=" or "?pathPrefix=") kept in memory. They have their own cache,
+	 * so requests for arbitrary filters can not evict the documents of {@link #cacheSize()}.
+	 */
+	int filteredCacheSize() default OAS3Cache.DEFAULT_FILTERED_MAX_SIZE;
+
+	/**
+	 * Convert with the token streaming converter instead of building the whole document in memory.
+	 */
+	boolean streaming() default false;
+
+	/**
+	 * Convert every Docket group on a background thread once the application context is refreshed.
+	 */
+	boolean prewarm() default false;
+
+	/**
+	 * Content encodings the converted documents are pre-compressed with, served by Accept-Encoding.
+	 * Supported values are "gzip" and "deflate".
+	 */
+	String[] contentEncodings() default { OAS3Document.GZIP, OAS3Document.DEFLATE };
+
+	/**
+	 * Number of threads converting "paths" and "definitions" in parallel, 0 to convert on the request thread.
+	 * Ignored in streaming mode.
+	 */
+	int parallelism() default 0;
+
+	/**
+	 * Keep the converted paths and schemas of each group, so a document invalidated by a context refresh
+	 * or an OAS3InvalidationEvent is converted again only where it changed.
+	 */
+	boolean incremental() default false;
+
+	/**
+	 * Location of the documents generated at build time by OAS3Generator, for example
+	 * "classpath:/META-INF/oas3/". Groups with a document generated for the request's basePath are served
+	 * from it without converting.
+	 * Empty to always convert.
+	 */
+	String staticLocation() default "";
+
+	/**
+	 * Keep converted documents in direct buffers outside of the Java heap.
+	 */
+	boolean offHeap() default false;
+
+	/**
+	 * Leave out the models, parameters and responses that no operation of the group refers to,
+	 * directly or through other components, and the security schemes no security requirement names. Documents are then converted from the tree even in streaming mode.
+	 */
+	boolean pruneComponents() default false;
+
+	/**
+	 * Serve the documents from a WebFlux RouterFunction instead of Spring MVC. Documents are converted
+	 * from the Swagger model of an OAS3SwaggerProvider bean, or served from {@link #staticLocation()}.
+	 * Requires spring-webflux; prewarm is ignored.
+	 */
+	boolean reactive() default false;
+
+	/**
+	 * Milliseconds a Swagger 2.0 documentation request waits for the conversion of its document before it is
+	 * served the Swagger 2.0 document as is, 0 to always wait. The conversion goes on in the background and
+	 * the next requests get the OAS3 document. Concurrent requests always share a single conversion.
+	 */
+	long conversionTimeout() default 0;
+
+	/**
+	 * Also make a YAML representation of every document, cached with the JSON one and served to requests
+	 * that prefer application/yaml or application/vnd.oai.openapi. Springfox maps the Swagger 2.0 endpoint
+	 * to JSON only, so YAML is served by the OAS3 endpoint and in reactive mode.
+	 * Requires jackson-dataformat-yaml.
+	 */
+	boolean yaml() default false;
+
+	/**
+	 * Limits of a conversion, 0 for none: the length of the Swagger 2.0 JSON in characters, the number of
+	 * operations, how deep schemas nest and the time the conversion takes in milliseconds. The schema depth
+	 * also bounds how deep the JSON may nest while it is parsed, see {@code OAS3Limits.getMaxNestingDepth()}.
+	 * A document over a limit is not converted; the Swagger 2.0 endpoint serves it unconverted and the reason
+	 * is logged and counted in the oas3.conversion.fallbacks metric.
+	 */
+	long maxDocumentLength() default 0;
+
+	int maxOperations() default 0;
+
+	int maxSchemaDepth() default 0;
+
+	long maxConversionMillis() default 0;
 }
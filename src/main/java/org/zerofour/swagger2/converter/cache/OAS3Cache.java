@@ -0,0 +1,66 @@
+package org.zerofour.swagger2.converter.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of converted documents, shared by all request threads.
+ * All access goes through the cache monitor, so a value put by one thread
+ * is safely published to every other thread that reads it.
+ */
+public class OAS3Cache<V> {
+	public static final int DEFAULT_MAX_SIZE = 64;
+	/** Default size of the cache of filtered views, whose keys come from the query of any client */
+	public static final int DEFAULT_FILTERED_MAX_SIZE = 16;
+
+	private final int maxSize;
+	private final Map<OAS3CacheKey,V> entries;
+
+	public OAS3Cache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	public OAS3Cache(int maxSize) {
+		if(maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+		}
+		this.maxSize = maxSize;
+		this.entries = new LinkedHashMap<OAS3CacheKey,V>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<OAS3CacheKey,V> eldest) {
+				return size() > OAS3Cache.this.maxSize;
+			}
+		};
+	}
+
+	public synchronized V get(OAS3CacheKey key) {
+		return entries.get(key);
+	}
+
+	public synchronized void put(OAS3CacheKey key, V value) {
+		entries.put(key, value);
+	}
+
+	/**
+	 * Removes the documents of a Docket group for every basePath.
+	 */
+	public synchronized void removeGroup(String group) {
+		entries.keySet().removeIf(key -> key.getGroup().equals(group));
+	}
+
+	public synchronized void remove(OAS3CacheKey key) {
+		entries.remove(key);
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+}
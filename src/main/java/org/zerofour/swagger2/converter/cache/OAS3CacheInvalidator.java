@@ -0,0 +1,51 @@
+package org.zerofour.swagger2.converter.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drops converted documents when springfox may have rebuilt the documentation, that is when the application
+ * context is refreshed again, and on an {@link OAS3InvalidationEvent}.
+ */
+public class OAS3CacheInvalidator implements ApplicationListener<ApplicationEvent>, ApplicationContextAware {
+	private static final Log logger = LogFactory.getLog(OAS3CacheInvalidator.class);
+
+	private final OAS3DocumentService service;
+
+	private ApplicationContext applicationContext;
+	private final AtomicBoolean refreshed = new AtomicBoolean(false);
+
+	public OAS3CacheInvalidator(OAS3DocumentService service) {
+		this.service = service;
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext) {
+		this.applicationContext = applicationContext;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if(event instanceof ContextRefreshedEvent) {
+			// the first refresh is the startup, there is nothing converted yet
+			if(((ContextRefreshedEvent)event).getApplicationContext() == applicationContext
+				&& !refreshed.compareAndSet(false, true)) {
+				logger.debug("Application context refreshed, invalidating OAS3 documents");
+				service.invalidate(null);
+			}
+		}
+		else if(event instanceof OAS3InvalidationEvent) {
+			String group = ((OAS3InvalidationEvent)event).getGroup();
+			logger.debug("Invalidating OAS3 documents of " + ((group != null) ? "group '" + group + "'" : "every group"));
+			service.invalidate(group);
+		}
+	}
+}
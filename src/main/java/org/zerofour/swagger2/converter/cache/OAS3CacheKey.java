@@ -0,0 +1,65 @@
+package org.zerofour.swagger2.converter.cache;
+
+import org.zerofour.swagger2.converter.oas3.OAS3PathFilter;
+
+import java.util.Objects;
+
+/**
+ * The key of a converted document. It has no host, as the "servers" url of a document is its basePath only.
+ */
+public final class OAS3CacheKey {
+	private final String group;
+	private final String basePath;
+	private final OAS3PathFilter filter;
+	private final int hash;
+
+	public OAS3CacheKey(String group, String basePath) {
+		this(group, basePath, null);
+	}
+
+	/**
+	 * The key of a filtered view of the group's document, or of the whole document if the filter is null.
+	 */
+	public OAS3CacheKey(String group, String basePath, OAS3PathFilter filter) {
+		this.group = group;
+		this.basePath = basePath;
+		this.filter = filter;
+		this.hash = Objects.hash(group, basePath, filter);
+	}
+
+	public String getGroup() {
+		return group;
+	}
+
+	public String getBasePath() {
+		return basePath;
+	}
+
+	public OAS3PathFilter getFilter() {
+		return filter;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) {
+			return true;
+		}
+		if(!(o instanceof OAS3CacheKey)) {
+			return false;
+		}
+		OAS3CacheKey other = (OAS3CacheKey)o;
+		return Objects.equals(group, other.group)
+			&& Objects.equals(basePath, other.basePath)
+			&& Objects.equals(filter, other.filter);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return "OAS3CacheKey{group=" + group + ", basePath=" + basePath + ", filter=" + filter + "}";
+	}
+}
@@ -0,0 +1,264 @@
+package org.zerofour.swagger2.converter.cache;
+
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A converted OAS3 document, encoded once as UTF-8 JSON and tagged with a strong ETag of its content.
+ * Compressed variants are made once, when the document is created, and each one has its own ETag.
+ *
+ * A document may also carry its YAML representation, an OAS3Document of its own with its own ETag and variants.
+ *
+ * Documents generated at build time (see {@link OAS3DocumentLoader}) may be memory-mapped files,
+ * so they are written with {@link #writeTo(String, OutputStream)} rather than copied to the heap.
+ */
+public final class OAS3Document {
+	public static final String IDENTITY = "identity";
+	public static final String GZIP = "gzip";
+	public static final String DEFLATE = "deflate";
+
+	private final String etag;
+	private final Map<String,Variant> variants = new LinkedHashMap<>();
+	private final OAS3Document yaml;
+
+	public OAS3Document(byte[] body, String... encodings) {
+		String hash = DigestUtils.md5DigestAsHex(body);
+		this.etag = "\"0" + hash + "\"";
+		this.yaml = null;
+		variants.put(IDENTITY, new Variant(ByteBuffer.wrap(body), etag));
+		for(String encoding: encodings) {
+			byte[] encoded = encode(body, encoding);
+			// a variant that does not save anything is not worth the Content-Encoding
+			if(encoded.length < body.length) {
+				variants.put(encoding, new Variant(ByteBuffer.wrap(encoded), "\"0" + hash + "-" + encoding + "\""));
+			}
+		}
+	}
+
+	private OAS3Document(String etag, Map<String,Variant> variants, OAS3Document yaml) {
+		this.etag = etag;
+		this.variants.putAll(variants);
+		this.yaml = yaml;
+	}
+
+	private OAS3Document(ByteBuffer body, Map<String,ByteBuffer> encoded) {
+		String hash = md5DigestAsHex(body);
+		this.etag = "\"0" + hash + "\"";
+		this.yaml = null;
+		variants.put(IDENTITY, new Variant(body, etag));
+		for(Map.Entry<String,ByteBuffer> e: encoded.entrySet()) {
+			variants.put(e.getKey(), new Variant(e.getValue(), "\"0" + hash + "-" + e.getKey() + "\""));
+		}
+	}
+
+	/**
+	 * A document that is already encoded, with its pre-compressed variants by content encoding.
+	 * The buffers are not copied, they may be memory-mapped files.
+	 */
+	public static OAS3Document fromEncoded(ByteBuffer body, Map<String,ByteBuffer> encoded) {
+		for(String encoding: encoded.keySet()) {
+			if(!isSupportedEncoding(encoding)) {
+				throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+			}
+		}
+		return new OAS3Document(body, encoded);
+	}
+
+	/**
+	 * The same document with a YAML representation.
+	 */
+	public OAS3Document withYaml(OAS3Document yaml) {
+		return new OAS3Document(etag, variants, yaml);
+	}
+
+	/**
+	 * The YAML representation of this document, null if it has none.
+	 */
+	public OAS3Document getYaml() {
+		return yaml;
+	}
+
+	/**
+	 * The encoded document, shared by every request. It must not be modified.
+	 */
+	public byte[] getBody() {
+		return getBody(IDENTITY);
+	}
+
+	public String getETag() {
+		return etag;
+	}
+
+	public int getContentLength() {
+		return getContentLength(IDENTITY);
+	}
+
+	/**
+	 * The encodings this document is available in, "identity" first.
+	 */
+	public Set<String> getEncodings() {
+		return Collections.unmodifiableSet(variants.keySet());
+	}
+
+	/**
+	 * The body of a variant. It is shared unless the document is not on the heap, in which case it is copied.
+	 */
+	public byte[] getBody(String encoding) {
+		Variant variant = variants.get(encoding);
+		if(variant == null) {
+			return null;
+		}
+		ByteBuffer body = variant.body;
+		if(body.hasArray() && body.arrayOffset() == 0 && body.remaining() == body.array().length) {
+			return body.array();
+		}
+		byte[] copy = new byte[body.remaining()];
+		body.duplicate().get(copy);
+		return copy;
+	}
+
+	/**
+	 * A read-only view of a variant, for writers that take buffers. Nothing is copied.
+	 */
+	public ByteBuffer getBuffer(String encoding) {
+		Variant variant = variants.get(encoding);
+		return (variant != null) ? variant.body.asReadOnlyBuffer() : null;
+	}
+
+	public int getContentLength(String encoding) {
+		Variant variant = variants.get(encoding);
+		return (variant != null) ? variant.body.remaining() : -1;
+	}
+
+	/**
+	 * Writes a variant without copying it to the heap first.
+	 */
+	public void writeTo(String encoding, OutputStream out) throws IOException {
+		writeTo(encoding, out, 0, getContentLength(encoding));
+	}
+
+	/**
+	 * Writes length bytes of a variant from offset. A variant off the heap goes through a small fixed
+	 * size chunk, so a request never takes heap in proportion to the document.
+	 */
+	public void writeTo(String encoding, OutputStream out, long offset, long length) throws IOException {
+		ByteBuffer body = variants.get(encoding).body;
+		if(offset < 0 || length < 0 || offset + length > body.remaining()) {
+			throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + " of " + body.remaining());
+		}
+		if(body.hasArray()) {
+			out.write(body.array(), body.arrayOffset() + body.position() + (int)offset, (int)length);
+			return;
+		}
+		ByteBuffer source = body.duplicate();
+		source.position(source.position() + (int)offset);
+		source.limit(source.position() + (int)length);
+		byte[] chunk = new byte[(int)Math.min(length, 8192)];
+		while(source.hasRemaining()) {
+			int chunkLength = Math.min(source.remaining(), chunk.length);
+			source.get(chunk, 0, chunkLength);
+			out.write(chunk, 0, chunkLength);
+		}
+	}
+
+	/**
+	 * The same document with every variant in a single direct buffer, shared by every request and
+	 * outside of the Java heap.
+	 */
+	public OAS3Document toDirect() {
+		int capacity = 0;
+		for(Variant variant: variants.values()) {
+			capacity += variant.body.remaining();
+		}
+		ByteBuffer direct = ByteBuffer.allocateDirect(capacity);
+		Map<String,Variant> directVariants = new LinkedHashMap<>();
+		for(Map.Entry<String,Variant> e: variants.entrySet()) {
+			ByteBuffer slice = direct.slice();
+			slice.limit(e.getValue().body.remaining());
+			slice.put(e.getValue().body.duplicate());
+			slice.flip();
+			direct.position(direct.position() + slice.remaining());
+			directVariants.put(e.getKey(), new Variant(slice.asReadOnlyBuffer(), e.getValue().etag));
+		}
+		return new OAS3Document(etag, directVariants, (yaml != null) ? yaml.toDirect() : null);
+	}
+
+	public String getETag(String encoding) {
+		Variant variant = variants.get(encoding);
+		return (variant != null) ? variant.etag : null;
+	}
+
+	public static boolean isSupportedEncoding(String encoding) {
+		return GZIP.equals(encoding) || DEFLATE.equals(encoding);
+	}
+
+	private static String md5DigestAsHex(ByteBuffer body) {
+		MessageDigest md5;
+		try {
+			md5 = MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		md5.update(body.duplicate());
+		StringBuilder hex = new StringBuilder(32);
+		for(byte b: md5.digest()) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
+	}
+
+	private static byte[] encode(byte[] body, String encoding) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 8);
+		try(OutputStream encoder = createEncoder(out, encoding)) {
+			encoder.write(body);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	private static OutputStream createEncoder(OutputStream out, String encoding) throws IOException {
+		// compressed once per conversion, so the best compression is worth its cost
+		if(GZIP.equals(encoding)) {
+			return new GZIPOutputStream(out, 8192) {
+				{
+					def.setLevel(Deflater.BEST_COMPRESSION);
+				}
+			};
+		}
+		if(DEFLATE.equals(encoding)) {
+			return new DeflaterOutputStream(out, new Deflater(Deflater.BEST_COMPRESSION), 8192) {
+				@Override
+				public void close() throws IOException {
+					super.close();
+					def.end();
+				}
+			};
+		}
+		throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+	}
+
+	private static final class Variant {
+		private final ByteBuffer body;
+		private final String etag;
+
+		private Variant(ByteBuffer body, String etag) {
+			this.body = body;
+			this.etag = etag;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package org.zerofour.swagger2.converter.cache;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Loads OAS3 documents generated at build time by OAS3Generator, one file per Docket group and basePath
+ * with optional ".gz" and ".deflate" variants next to it.
+ *
+ * Files on the file system are memory-mapped, resources in a jar are read once.
+ */
+public class OAS3DocumentLoader {
+	public static final String DEFAULT_LOCATION = "classpath:/META-INF/oas3/";
+
+	private static final Map<String,String> EXTENSIONS = new LinkedHashMap<>();
+	private static final Pattern SEGMENT = Pattern.compile("[A-Za-z0-9._-]+");
+
+	static {
+		EXTENSIONS.put(OAS3Document.GZIP, ".gz");
+		EXTENSIONS.put(OAS3Document.DEFLATE, ".deflate");
+	}
+
+	private final ResourceLoader resourceLoader;
+	private final String location;
+
+	public OAS3DocumentLoader(String location) {
+		this(new DefaultResourceLoader(), location);
+	}
+
+	public OAS3DocumentLoader(ResourceLoader resourceLoader, String location) {
+		this.resourceLoader = resourceLoader;
+		this.location = location.endsWith("/") ? location : location + "/";
+	}
+
+	/**
+	 * The file name of the document of a Docket group, relative to the location.
+	 */
+	public static String fileName(String group) {
+		return group.replaceAll("[^A-Za-z0-9._-]", "_") + ".json";
+	}
+
+	/**
+	 * The file name of a pre-compressed variant, relative to the location.
+	 */
+	public static String fileName(String group, String encoding) {
+		if(!OAS3Document.isSupportedEncoding(encoding)) {
+			throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+		}
+		return fileName(group) + EXTENSIONS.get(encoding);
+	}
+
+	/**
+	 * The directory of the documents of a basePath, relative to the location: the location itself for "/",
+	 * "api/v1/" for "/api/v1". Null if the basePath can not be a directory, as with a ".." segment
+	 * or characters other than letters, digits, '.', '_' and '-'.
+	 */
+	public static String directory(String basePath) {
+		StringBuilder directory = new StringBuilder();
+		if(basePath != null) {
+			for(String segment: basePath.split("/")) {
+				if(segment.isEmpty()) {
+					continue;
+				}
+				if(!SEGMENT.matcher(segment).matches() || segment.equals(".") || segment.equals("..")) {
+					return null;
+				}
+				directory.append(segment).append('/');
+			}
+		}
+		return directory.toString();
+	}
+
+	/**
+	 * Returns the document of the group generated for the basePath, with the variants of the given encodings
+	 * that exist, or null if there is none. The "servers" url of a generated document is its basePath,
+	 * so a document generated for another basePath is not served.
+	 */
+	public OAS3Document load(String group, String basePath, String... encodings) throws IOException {
+		String directory = directory(basePath);
+		if(directory == null) {
+			return null;
+		}
+		ByteBuffer body = read(resourceLoader.getResource(location + directory + fileName(group)));
+		if(body == null) {
+			return null;
+		}
+		Map<String,ByteBuffer> encoded = new LinkedHashMap<>();
+		for(String encoding: encodings) {
+			ByteBuffer variant = read(resourceLoader.getResource(location + directory + fileName(group, encoding)));
+			if(variant != null) {
+				encoded.put(encoding, variant);
+			}
+		}
+		return OAS3Document.fromEncoded(body, encoded);
+	}
+
+	public String getLocation() {
+		return location;
+	}
+
+	private static ByteBuffer read(Resource resource) throws IOException {
+		if(!resource.exists()) {
+			return null;
+		}
+		if(resource.isFile()) {
+			// the mapping stays valid after the channel is closed
+			try(FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+		}
+		try(InputStream in = resource.getInputStream()) {
+			return ByteBuffer.wrap(StreamUtils.copyToByteArray(in));
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package org.zerofour.swagger2.converter.cache;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by the application when its documentation changed, for example after a feature flag refresh,
+ * so the next request converts the documentation again. See {@link OAS3CacheInvalidator}.
+ */
+public class OAS3InvalidationEvent extends ApplicationEvent {
+	private final String group;
+
+	/**
+	 * Invalidates every Docket group.
+	 */
+	public OAS3InvalidationEvent(Object source) {
+		this(source, null);
+	}
+
+	public OAS3InvalidationEvent(Object source, String group) {
+		super(source);
+		this.group = group;
+	}
+
+	/**
+	 * The Docket group to invalidate, null for every group.
+	 */
+	public String getGroup() {
+		return group;
+	}
+}
@@ -1,13 +1,148 @@
 package org.zerofour.swagger2.converter.configuration;
 
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.zerofour.swagger2.converter.advice.OAS3ConverterAdvice;
+import org.springframework.context.annotation.ImportAware;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ClassUtils;
+import org.zerofour.swagger2.converter.annotation.EnableSwagger2OAS3;
+import org.zerofour.swagger2.converter.cache.OAS3Cache;
+import org.zerofour.swagger2.converter.cache.OAS3CacheInvalidator;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+import org.zerofour.swagger2.converter.cache.OAS3DocumentLoader;
+import org.zerofour.swagger2.converter.metrics.MicrometerOAS3Metrics;
+import org.zerofour.swagger2.converter.metrics.OAS3Metrics;
+import org.zerofour.swagger2.converter.oas3.OAS3Converter;
+import org.zerofour.swagger2.converter.oas3.OAS3Limits;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import springfox.documentation.spring.web.json.JacksonModuleRegistrar;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Configuration
-public class OAS3Configuration {
+public class OAS3Configuration implements ImportAware, BeanFactoryAware, ResourceLoaderAware, DisposableBean {
+	private static final String MICROMETER_REGISTRY_CLASS = "io.micrometer.core.instrument.MeterRegistry";
+
+	private int cacheSize = OAS3Cache.DEFAULT_MAX_SIZE;
+	private int filteredCacheSize = OAS3Cache.DEFAULT_FILTERED_MAX_SIZE;
+	private boolean streaming = false;
+	private String[] contentEncodings = { OAS3Document.GZIP, OAS3Document.DEFLATE };
+	private int parallelism = 0;
+	private boolean incremental = false;
+	private String staticLocation = "";
+	private boolean offHeap = false;
+	private boolean pruneComponents = false;
+	private long conversionTimeout = 0;
+	private boolean yaml = false;
+	private OAS3Limits limits = OAS3Limits.NONE;
+
+	private BeanFactory beanFactory;
+	private ResourceLoader resourceLoader;
+	private ForkJoinPool conversionPool;
+	private ThreadPoolExecutor conversionExecutor;
+
+	@Override
+	public void setImportMetadata(AnnotationMetadata importMetadata) {
+		AnnotationAttributes attributes = AnnotationAttributes.fromMap(
+			importMetadata.getAnnotationAttributes(EnableSwagger2OAS3.class.getName()));
+		if(attributes != null) {
+			cacheSize = attributes.getNumber("cacheSize");
+			filteredCacheSize = attributes.getNumber("filteredCacheSize");
+			streaming = attributes.getBoolean("streaming");
+			contentEncodings = attributes.getStringArray("contentEncodings");
+			parallelism = attributes.getNumber("parallelism");
+			incremental = attributes.getBoolean("incremental");
+			staticLocation = attributes.getString("staticLocation");
+			offHeap = attributes.getBoolean("offHeap");
+			pruneComponents = attributes.getBoolean("pruneComponents");
+			conversionTimeout = attributes.getNumber("conversionTimeout");
+			yaml = attributes.getBoolean("yaml");
+			limits = new OAS3Limits(attributes.getNumber("maxDocumentLength"),
+				attributes.getNumber("maxOperations"),
+				attributes.getNumber("maxSchemaDepth"),
+				attributes.getNumber("maxConversionMillis"));
+		}
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
+	@Override
+	public void setResourceLoader(ResourceLoader resourceLoader) {
+		this.resourceLoader = resourceLoader;
+	}
+
+	@Bean
+	public OAS3DocumentService oas3DocumentService(ObjectProvider<JacksonModuleRegistrar> moduleRegistrars) {
+		OAS3Converter oas3Converter;
+		if(parallelism > 0) {
+			conversionPool = new ForkJoinPool(parallelism);
+			oas3Converter = new OAS3Converter(conversionPool);
+		}
+		else {
+			oas3Converter = new OAS3Converter();
+		}
+		oas3Converter.setPruneComponents(pruneComponents);
+		oas3Converter.setLimits(limits);
+
+		OAS3DocumentService service = new OAS3DocumentService(new OAS3Cache<>(cacheSize), oas3Converter);
+		service.setFilteredCache(new OAS3Cache<>(filteredCacheSize));
+		service.setStreaming(streaming);
+		service.setIncremental(incremental);
+		service.setOffHeap(offHeap);
+		service.setYaml(yaml);
+		if(!staticLocation.isEmpty()) {
+			service.setDocumentLoader(new OAS3DocumentLoader(resourceLoader, staticLocation));
+		}
+		service.setContentEncodings(contentEncodings);
+		if(conversionTimeout > 0) {
+			// concurrent requests share a conversion, so a thread per core is plenty; idle threads are released
+			int threads = Runtime.getRuntime().availableProcessors();
+			conversionExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), new CustomizableThreadFactory("oas3-convert-"));
+			conversionExecutor.allowCoreThreadTimeOut(true);
+			service.setConversionExecutor(conversionExecutor);
+			service.setConversionTimeout(conversionTimeout);
+		}
+		service.setMetrics(metrics());
+		service.setJacksonModuleRegistrars(moduleRegistrars.orderedStream().collect(Collectors.toList()));
+		return service;
+	}
+
 	@Bean
-	public OAS3ConverterAdvice oas3ConverterAdvice() {
-		return new OAS3ConverterAdvice();
+	public OAS3CacheInvalidator oas3CacheInvalidator(OAS3DocumentService oas3DocumentService) {
+		return new OAS3CacheInvalidator(oas3DocumentService);
+	}
+
+	// Micrometer is optional, MicrometerOAS3Metrics is only loaded when it is on the classpath
+	private OAS3Metrics metrics() {
+		if(ClassUtils.isPresent(MICROMETER_REGISTRY_CLASS, getClass().getClassLoader())) {
+			return MicrometerOAS3Metrics.fromBeanFactory(beanFactory);
+		}
+		return OAS3Metrics.NOOP;
+	}
+
+	@Override
+	public void destroy() {
+		if(conversionPool != null) {
+			conversionPool.shutdown();
+		}
+		if(conversionExecutor != null) {
+			conversionExecutor.shutdown();
+		}
 	}
 }
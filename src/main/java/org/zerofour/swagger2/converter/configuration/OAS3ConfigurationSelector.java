@@ -0,0 +1,31 @@
+package org.zerofour.swagger2.converter.configuration;
+
+import org.springframework.context.annotation.ImportSelector;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
+import org.zerofour.swagger2.converter.annotation.EnableSwagger2OAS3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OAS3ConfigurationSelector implements ImportSelector {
+	@Override
+	public String[] selectImports(AnnotationMetadata importingClassMetadata) {
+		AnnotationAttributes attributes = AnnotationAttributes.fromMap(
+			importingClassMetadata.getAnnotationAttributes(EnableSwagger2OAS3.class.getName()));
+
+		boolean reactive = attributes != null && attributes.getBoolean("reactive");
+
+		List<String> imports = new ArrayList<>();
+		imports.add(OAS3Configuration.class.getName());
+		// class names only, so the WebFlux configuration is not loaded without WebFlux on the classpath
+		imports.add(reactive
+			? "org.zerofour.swagger2.converter.configuration.OAS3ReactiveConfiguration"
+			: OAS3WebMvcConfiguration.class.getName());
+		// the prewarmer converts springfox's Spring MVC documentation
+		if(attributes != null && attributes.getBoolean("prewarm") && !reactive) {
+			imports.add(OAS3PrewarmConfiguration.class.getName());
+		}
+		return imports.toArray(new String[0]);
+	}
+}
@@ -0,0 +1,18 @@
+package org.zerofour.swagger2.converter.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zerofour.swagger2.converter.prewarm.OAS3Prewarmer;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.swagger2.mappers.ServiceModelToSwagger2Mapper;
+
+@Configuration
+public class OAS3PrewarmConfiguration {
+	@Bean
+	public OAS3Prewarmer oas3Prewarmer(OAS3DocumentService oas3DocumentService,
+	                                   DocumentationCache documentationCache,
+	                                   ServiceModelToSwagger2Mapper mapper) {
+		return new OAS3Prewarmer(oas3DocumentService, documentationCache, mapper);
+	}
+}
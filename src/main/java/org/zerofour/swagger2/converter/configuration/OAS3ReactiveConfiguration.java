@@ -0,0 +1,55 @@
+package org.zerofour.swagger2.converter.configuration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.zerofour.swagger2.converter.reactive.OAS3ReactiveHandler;
+import org.zerofour.swagger2.converter.reactive.OAS3SwaggerProvider;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import org.zerofour.swagger2.converter.web.OAS3Controller;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the OAS3 documents from a WebFlux RouterFunction, see {@link OAS3ReactiveHandler}.
+ */
+@Configuration
+public class OAS3ReactiveConfiguration implements DisposableBean {
+	// conversions waiting for a thread, further ones are answered with a 503
+	private static final int QUEUE_CAPACITY = 256;
+
+	private ThreadPoolExecutor executor;
+
+	@Bean
+	public OAS3ReactiveHandler oas3ReactiveHandler(OAS3DocumentService oas3DocumentService,
+	                                               ObjectProvider<OAS3SwaggerProvider> swaggerProvider) {
+		// bounded like an elastic scheduler: at most one thread per core, idle threads are released
+		int threads = Runtime.getRuntime().availableProcessors();
+		executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(QUEUE_CAPACITY), new CustomizableThreadFactory("oas3-convert-"));
+		executor.allowCoreThreadTimeOut(true);
+		return new OAS3ReactiveHandler(oas3DocumentService, swaggerProvider.getIfAvailable(), executor);
+	}
+
+	@Bean
+	public RouterFunction<ServerResponse> oas3RouterFunction(Environment environment, OAS3ReactiveHandler oas3ReactiveHandler) {
+		String path = environment.getProperty("springfox.documentation.oas3.path", OAS3Controller.DEFAULT_URL);
+		return RouterFunctions.route(RequestPredicates.GET(path), oas3ReactiveHandler);
+	}
+
+	@Override
+	public void destroy() {
+		if(executor != null) {
+			executor.shutdownNow();
+		}
+	}
+}
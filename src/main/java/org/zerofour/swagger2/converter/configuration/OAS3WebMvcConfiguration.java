@@ -0,0 +1,34 @@
+package org.zerofour.swagger2.converter.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.HandlerMapping;
+import org.zerofour.swagger2.converter.advice.OAS3ConverterAdvice;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import org.zerofour.swagger2.converter.web.OAS3Controller;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.PropertySourcedRequestMappingHandlerMapping;
+import springfox.documentation.swagger2.mappers.ServiceModelToSwagger2Mapper;
+
+@Configuration
+public class OAS3WebMvcConfiguration {
+	@Bean
+	public OAS3ConverterAdvice oas3ConverterAdvice(OAS3DocumentService oas3DocumentService) {
+		return new OAS3ConverterAdvice(oas3DocumentService);
+	}
+
+	@Bean
+	public OAS3Controller oas3Controller(Environment environment,
+	                                     OAS3ConverterAdvice oas3ConverterAdvice,
+	                                     DocumentationCache documentationCache,
+	                                     ServiceModelToSwagger2Mapper mapper) {
+		return new OAS3Controller(environment, oas3ConverterAdvice, documentationCache, mapper);
+	}
+
+	// maps OAS3Controller to ${springfox.documentation.oas3.path} when it is set, as springfox does for Swagger2Controller
+	@Bean
+	public HandlerMapping oas3ControllerMapping(Environment environment, OAS3Controller oas3Controller) {
+		return new PropertySourcedRequestMappingHandlerMapping(environment, oas3Controller);
+	}
+}
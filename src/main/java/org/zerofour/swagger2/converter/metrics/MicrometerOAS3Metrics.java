@@ -0,0 +1,151 @@
+package org.zerofour.swagger2.converter.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.BeanFactory;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Publishes {@link OAS3Metrics} to a Micrometer registry, tagged by Docket group.
+ *
+ * <ul>
+ *     <li>oas3.conversion.stage - timer per stage</li>
+ *     <li>oas3.cache - counter, result=hit|miss|coalesced</li>
+ *     <li>oas3.document.input.length - characters of the Swagger 2.0 JSON</li>
+ *     <li>oas3.document.size - bytes of the OAS3 JSON</li>
+ *     <li>oas3.document.operations, oas3.document.schemas</li>
+ *     <li>oas3.schema.memo - counter, result=hit|miss</li>
+ *     <li>oas3.conversion.failures - counter</li>
+ *     <li>oas3.conversion.fallbacks - counter, reason</li>
+ * </ul>
+ */
+public class MicrometerOAS3Metrics implements OAS3Metrics {
+	private static final String GROUP = "group";
+
+	private final MeterRegistry registry;
+	private final Map<String,Map<String,Map<Object,Meter>>> meters = new ConcurrentHashMap<>();
+
+	public MicrometerOAS3Metrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Returns metrics for the MeterRegistry of the bean factory, or {@link OAS3Metrics#NOOP} if there is none.
+	 * Must only be called when Micrometer is on the classpath.
+	 */
+	public static OAS3Metrics fromBeanFactory(BeanFactory beanFactory) {
+		MeterRegistry registry = beanFactory.getBeanProvider(MeterRegistry.class).getIfAvailable();
+		return (registry != null) ? new MicrometerOAS3Metrics(registry) : NOOP;
+	}
+
+	@Override
+	public void recordStage(String group, Stage stage, long nanos) {
+		Timer timer = meter(group, "oas3.conversion.stage", stage, () -> Timer.builder("oas3.conversion.stage")
+			.description("Time spent in each stage of the OAS3 conversion")
+			.tag(GROUP, group)
+			.tag("stage", stage.name().toLowerCase(Locale.ROOT))
+			.register(registry));
+		timer.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void recordCacheHit(String group) {
+		cache(group, "hit").increment();
+	}
+
+	@Override
+	public void recordCacheMiss(String group) {
+		cache(group, "miss").increment();
+	}
+
+	@Override
+	public void recordCoalesced(String group) {
+		cache(group, "coalesced").increment();
+	}
+
+	@Override
+	public void recordDocument(String group, long inputLength, long outputBytes, int operations, int schemas) {
+		summary(group, "oas3.document.input.length", null).record(inputLength);
+		summary(group, "oas3.document.size", "bytes").record(outputBytes);
+		if(operations >= 0) {
+			summary(group, "oas3.document.operations", null).record(operations);
+		}
+		if(schemas >= 0) {
+			summary(group, "oas3.document.schemas", null).record(schemas);
+		}
+	}
+
+	@Override
+	public void recordSchemaMemo(String group, int hits, int misses) {
+		schemaMemo(group, "hit").increment(hits);
+		schemaMemo(group, "miss").increment(misses);
+	}
+
+	@Override
+	public void recordFailure(String group) {
+		Counter counter = meter(group, "oas3.conversion.failures", "", () -> Counter.builder("oas3.conversion.failures")
+			.tag(GROUP, group)
+			.register(registry));
+		counter.increment();
+	}
+
+	@Override
+	public void recordFallback(String group, String reason) {
+		Counter counter = meter(group, "oas3.conversion.fallbacks", reason, () -> Counter.builder("oas3.conversion.fallbacks")
+			.description("Requests answered with the Swagger 2.0 document")
+			.tag(GROUP, group)
+			.tag("reason", reason)
+			.register(registry));
+		counter.increment();
+	}
+
+	private Counter cache(String group, String result) {
+		return meter(group, "oas3.cache", result, () -> Counter.builder("oas3.cache")
+			.description("Lookups of converted documents")
+			.tag(GROUP, group)
+			.tag("result", result)
+			.register(registry));
+	}
+
+	private Counter schemaMemo(String group, String result) {
+		return meter(group, "oas3.schema.memo", result, () -> Counter.builder("oas3.schema.memo")
+			.description("Schemas of a conversion reused from its memo table, or converted")
+			.tag(GROUP, group)
+			.tag("result", result)
+			.register(registry));
+	}
+
+	private DistributionSummary summary(String group, String name, String baseUnit) {
+		return meter(group, name, "", () -> DistributionSummary.builder(name)
+			.baseUnit(baseUnit)
+			.tag(GROUP, group)
+			.register(registry));
+	}
+
+	// the meter of the group by name and tag value, built and registered on first use only, as building
+	// a meter and looking it up in the registry costs more than recording
+	@SuppressWarnings("unchecked")
+	private <M extends Meter> M meter(String group, String name, Object tag, Supplier<M> register) {
+		Map<String,Map<Object,Meter>> groupMeters = meters.get(group);
+		if(groupMeters == null) {
+			groupMeters = meters.computeIfAbsent(group, g -> new ConcurrentHashMap<>());
+		}
+		Map<Object,Meter> named = groupMeters.get(name);
+		if(named == null) {
+			named = groupMeters.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+		}
+		Meter meter = named.get(tag);
+		if(meter == null) {
+			meter = named.computeIfAbsent(tag, t -> register.get());
+		}
+		return (M)meter;
+	}
+}
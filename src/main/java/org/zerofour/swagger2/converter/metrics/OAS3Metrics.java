@@ -0,0 +1,64 @@
+package org.zerofour.swagger2.converter.metrics;
+
+/**
+ * Instrumentation of the conversion pipeline. Every method defaults to doing nothing.
+ */
+public interface OAS3Metrics {
+
+	OAS3Metrics NOOP = new OAS3Metrics() {
+	};
+
+	enum Stage {
+		/** Swagger 2.0 JSON to tree */
+		PARSE,
+		/** Swagger 2.0 tree to the OpenAPI model */
+		CONVERT,
+		/** OpenAPI model to JSON */
+		WRITE,
+		/** parse, convert and write in a single pass, see OAS3StreamingConverter */
+		STREAM,
+		/** pre-compressed variants */
+		COMPRESS,
+		/** OpenAPI model, or OAS3 JSON, to YAML */
+		YAML
+	}
+
+	default void recordStage(String group, Stage stage, long nanos) {
+	}
+
+	default void recordCacheHit(String group) {
+	}
+
+	default void recordCacheMiss(String group) {
+	}
+
+	/**
+	 * A miss that waited for the conversion another request had already started.
+	 */
+	default void recordCoalesced(String group) {
+	}
+
+	/**
+	 * A converted document, with the length of the Swagger 2.0 JSON in characters and the size of the
+	 * OAS3 JSON in bytes. The operation and schema counts are -1 when they are not known, as with the
+	 * streaming converter.
+	 */
+	default void recordDocument(String group, long inputLength, long outputBytes, int operations, int schemas) {
+	}
+
+	/**
+	 * The schema memo table of one conversion: schemas converted once and reused, and schemas converted.
+	 */
+	default void recordSchemaMemo(String group, int hits, int misses) {
+	}
+
+	default void recordFailure(String group) {
+	}
+
+	/**
+	 * A document not served as OAS3, so the Swagger 2.0 one is served where there is one. The reason is
+	 * "timeout" or the limit of the conversion, see OAS3Limits.Limit#reason().
+	 */
+	default void recordFallback(String group, String reason) {
+	}
+}
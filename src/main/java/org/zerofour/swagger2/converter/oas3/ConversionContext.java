@@ -0,0 +1,200 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of a single document conversion, shared by the threads of a parallel conversion.
+ */
+class ConversionContext {
+
+	// converted schemas by the structure of their Swagger 2.0 source, so repeated inline shapes are
+	// converted once and the resulting Schema instance is shared
+	private final Map<SchemaKey,Schema> schemas = new ConcurrentHashMap<>();
+	private final OAS3ConversionStats stats;
+
+	// null unless the conversion reuses an earlier one, see OAS3ConversionState
+	private final OAS3ConversionState.Generation generation;
+
+	private final RefTable refs;
+
+	private final OAS3Limits limits;
+	private final long start = System.nanoTime();
+	private final AtomicInteger operations = new AtomicInteger();
+
+	ConversionContext(OAS3ConversionState.Generation generation, RefTable refs, OAS3Limits limits,
+	                  OAS3ConversionStats stats) {
+		this.generation = generation;
+		this.refs = refs;
+		this.limits = limits;
+		this.stats = stats;
+	}
+
+	/**
+	 * Counts the operations of a path item, checking the operation and time limits.
+	 */
+	void countOperations(int count) {
+		int total = operations.addAndGet(count);
+		if(limits.getMaxOperations() > 0 && total > limits.getMaxOperations()) {
+			throw new OAS3LimitExceededException(OAS3Limits.Limit.OPERATIONS,
+				"more than " + limits.getMaxOperations() + " operations");
+		}
+		checkTime();
+	}
+
+	/**
+	 * Checks the depth of a schema being converted, 1 for a schema that is not nested, and the time limit.
+	 */
+	void checkSchemaDepth(int depth) {
+		if(limits.getMaxSchemaDepth() > 0 && depth > limits.getMaxSchemaDepth()) {
+			throw new OAS3LimitExceededException(OAS3Limits.Limit.SCHEMA_DEPTH,
+				"schema nested deeper than " + limits.getMaxSchemaDepth());
+		}
+		checkTime();
+	}
+
+	void checkTime() {
+		long max = limits.getMaxConversionMillis();
+		if(max > 0 && System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(max)) {
+			throw new OAS3LimitExceededException(OAS3Limits.Limit.CONVERSION_TIME,
+				"conversion took longer than " + max + " ms");
+		}
+	}
+
+	OAS3ConversionState.Generation getGeneration() {
+		return generation;
+	}
+
+	String convertRef(String ref) {
+		return refs.convert(ref);
+	}
+
+	Set<String> getDanglingRefs() {
+		return refs.getDanglingRefs();
+	}
+
+	void checkRefTargets(Map<String,Set<String>> sections) {
+		refs.checkTargets(sections);
+	}
+
+	/**
+	 * The schema converted for an equal key, counting the lookup as a hit or a miss.
+	 */
+	Schema getSchema(SchemaKey key) {
+		Schema schema = schemas.get(key);
+		if(schema != null) {
+			stats.schemaMemoHit();
+		}
+		else {
+			stats.schemaMemoMiss();
+		}
+		return schema;
+	}
+
+	/**
+	 * Adds a converted schema, returning the one another thread added for an equal key first, if any.
+	 * Every key maps to a single instance, so keys of enclosing schemas can compare nested ones by identity.
+	 */
+	Schema putSchema(SchemaKey key, Schema schema) {
+		Schema previous = schemas.putIfAbsent(key, schema);
+		return (previous != null) ? previous : schema;
+	}
+
+	/**
+	 * The structure of a Swagger 2.0 schema, with its nested schemas replaced by their converted instances.
+	 * As those are shared between equal structures, the key is hashed and compared one level deep, once per
+	 * schema, instead of through the whole subtree at every level.
+	 */
+	static final class SchemaKey {
+		private final JSON oas2Schema;
+		// null unless converted, in which case the Swagger 2.0 entry is left out of the comparison
+		private final Schema items;
+		private final Map<String,Schema> properties;
+		private final Schema additionalProperties;
+		private final int hash;
+
+		SchemaKey(JSON oas2Schema, Schema items, Map<String,Schema> properties, Schema additionalProperties) {
+			this.oas2Schema = oas2Schema;
+			this.items = items;
+			this.properties = properties;
+			this.additionalProperties = additionalProperties;
+
+			int hash = 0;
+			for(Map.Entry<String,Object> e: oas2Schema.entrySet()) {
+				if(!isNested(e.getKey())) {
+					hash += e.hashCode();
+				}
+			}
+			hash = 31 * hash + System.identityHashCode(items);
+			hash = 31 * hash + System.identityHashCode(additionalProperties);
+			if(properties != null) {
+				int propertiesHash = 1;
+				for(Map.Entry<String,Schema> e: properties.entrySet()) {
+					propertiesHash += e.getKey().hashCode() ^ System.identityHashCode(e.getValue());
+				}
+				hash = 31 * hash + propertiesHash;
+			}
+			this.hash = hash;
+		}
+
+		private boolean isNested(String name) {
+			switch(name) {
+				case "items": return items != null;
+				case "properties": return properties != null;
+				case "additionalProperties": return additionalProperties != null;
+			}
+			return false;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(this == o) {
+				return true;
+			}
+			if(!(o instanceof SchemaKey)) {
+				return false;
+			}
+			SchemaKey other = (SchemaKey)o;
+			if(hash != other.hash || items != other.items || additionalProperties != other.additionalProperties
+				|| !sameProperties(properties, other.properties)
+				|| oas2Schema.size() != other.oas2Schema.size()) {
+				return false;
+			}
+			for(Map.Entry<String,Object> e: oas2Schema.entrySet()) {
+				if(!other.oas2Schema.containsKey(e.getKey())) {
+					return false;
+				}
+				if(!isNested(e.getKey()) && !Objects.equals(e.getValue(), other.oas2Schema.get(e.getKey()))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean sameProperties(Map<String,Schema> properties, Map<String,Schema> other) {
+			if(properties == null || other == null) {
+				return properties == other;
+			}
+			if(properties.size() != other.size()) {
+				return false;
+			}
+			for(Map.Entry<String,Schema> e: properties.entrySet()) {
+				if(other.get(e.getKey()) != e.getValue()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -1,44 +1,102 @@
 package org.zerofour.swagger2.converter.oas3;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 
 public class JSON extends LinkedHashMap<String,Object> {
 	private static ObjectMapper om;
+	private static ObjectWriter streamWriter;
 
 	private static class Deserializer extends JsonDeserializer<Object> {
+		// containers the values may nest in, 0 for any number
+		private final int maxDepth;
+
+		Deserializer(int maxDepth) {
+			this.maxDepth = maxDepth;
+		}
+
 		@Override
 		public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-			ObjectCodec objectCodec = p.getCodec();
-			JsonNode jsonNode = objectCodec.readTree(p);
-
-			switch(jsonNode.getNodeType()) {
-				case NULL:
-				case MISSING:
-					return null;
-				case POJO:
-				case OBJECT:
-					return objectCodec.treeToValue(jsonNode, JSON.class);
-				case ARRAY:
-					return objectCodec.treeToValue(jsonNode, List.class);
-				case BINARY:
-				case STRING:
-					return jsonNode.asText();
-				case NUMBER:
-					return jsonNode.asInt();
-				case BOOLEAN:
-					return jsonNode.asBoolean();
+			return readValue(p, p.currentToken(), 0);
+		}
+
+		// builds JSON/List/scalar values straight from the tokens, without an intermediate JsonNode tree;
+		// depth is the number of containers the value is in
+		private Object readValue(JsonParser p, JsonToken token, int depth) throws IOException {
+			switch(token) {
+				case START_OBJECT:
+				case FIELD_NAME:
+					return readObject(p, token, depth + 1);
+				case START_ARRAY:
+					return readArray(p, depth + 1);
+				case VALUE_STRING:
+					return p.getText();
+				case VALUE_NUMBER_INT:
+					return readInteger(p);
+				case VALUE_NUMBER_FLOAT:
+					return p.getDecimalValue();
+				case VALUE_TRUE:
+					return Boolean.TRUE;
+				case VALUE_FALSE:
+					return Boolean.FALSE;
+				case VALUE_EMBEDDED_OBJECT:
+					return p.getEmbeddedObject();
 			}
 			return null;
 		}
+
+		// Integer when it fits (boxed through Integer.valueOf, so small values are shared), then Long, then BigInteger
+		private Object readInteger(JsonParser p) throws IOException {
+			switch(p.getNumberType()) {
+				case INT:
+					return Integer.valueOf(p.getIntValue());
+				case LONG:
+					return Long.valueOf(p.getLongValue());
+				default:
+					return p.getBigIntegerValue();
+			}
+		}
+
+		private JSON readObject(JsonParser p, JsonToken token, int depth) throws IOException {
+			checkDepth(depth);
+			JSON json = new JSON();
+			String name = (token == JsonToken.START_OBJECT) ? p.nextFieldName() : p.getCurrentName();
+			while(name != null) {
+				json.put(name, readValue(p, p.nextToken(), depth));
+				name = p.nextFieldName();
+			}
+			return json;
+		}
+
+		private List<Object> readArray(JsonParser p, int depth) throws IOException {
+			checkDepth(depth);
+			List<Object> list = new ArrayList<>();
+			JsonToken token;
+			while((token = p.nextToken()) != JsonToken.END_ARRAY) {
+				list.add(readValue(p, token, depth));
+			}
+			return list;
+		}
+
+		// checked before reading the container, so the recursion never goes deeper than the limit
+		private void checkDepth(int depth) {
+			if(maxDepth > 0 && depth > maxDepth) {
+				throw new OAS3LimitExceededException(OAS3Limits.Limit.SCHEMA_DEPTH,
+					"JSON nested deeper than " + maxDepth);
+			}
+		}
 	}
 
 	static {
@@ -47,7 +105,8 @@ public class JSON extends LinkedHashMap<String,Object> {
 		om.setSerializationInclusion(JsonInclude.Include.NON_NULL);
 		om.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
 		om.registerModule(new SimpleModule()
-			.addDeserializer(Object.class, new Deserializer()));
+			.addDeserializer(Object.class, new Deserializer(0)));
+		streamWriter = om.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
 	}
 
 	public static JSON readValue(String str) throws IOException {
@@ -58,6 +117,61 @@ public class JSON extends LinkedHashMap<String,Object> {
 		return om.convertValue(obj, JSON.class);
 	}
 
+	public static JSON readValue(JsonParser parser) throws IOException {
+		return om.readValue(parser, JSON.class);
+	}
+
+	/**
+	 * Reads the object at the current token of the parser, or its next one, throwing an
+	 * {@link OAS3LimitExceededException} as soon as it nests more than maxDepth objects and arrays, 0 for any number.
+	 */
+	public static JSON readValue(JsonParser parser, int maxDepth) throws IOException {
+		JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+		if(maxDepth <= 0 || token != JsonToken.START_OBJECT) {
+			return readValue(parser);
+		}
+		return new Deserializer(maxDepth).readObject(parser, token, 1);
+	}
+
+	/**
+	 * Reads the array at the current token of the parser as {@link #readValue(JsonParser, int)} reads an object.
+	 */
+	public static List<Object> readList(JsonParser parser, int maxDepth) throws IOException {
+		JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+		if(token != JsonToken.START_ARRAY) {
+			return om.readValue(parser, List.class);
+		}
+		return new Deserializer(maxDepth).readArray(parser, 1);
+	}
+
+	public static void writeValue(JsonGenerator generator, Object obj) throws IOException {
+		streamWriter.writeValue(generator, obj);
+	}
+
+	public static String writeValueAsString(Object obj) throws IOException {
+		return streamWriter.writeValueAsString(obj);
+	}
+
+	/**
+	 * Serializes a model straight to bytes, the same as {@code JSON.readValue(obj).writeValueAsBytes()}
+	 * without the intermediate tree. Jackson writes into its recycled per-thread buffers and copies once.
+	 */
+	public static byte[] writeValueAsBytes(Object obj) throws IOException {
+		return streamWriter.writeValueAsBytes(obj);
+	}
+
+	public static JsonParser createParser(String str) throws IOException {
+		return om.getFactory().createParser(str);
+	}
+
+	public static JsonParser createParser(InputStream in) throws IOException {
+		return om.getFactory().createParser(in);
+	}
+
+	public static JsonGenerator createGenerator(OutputStream out) throws IOException {
+		return om.getFactory().createGenerator(out);
+	}
+
 	public <T> T convert(Class<T> clazz) {
 		return om.convertValue(this, clazz);
 	}
@@ -65,4 +179,8 @@ public class JSON extends LinkedHashMap<String,Object> {
 	public String writeValue() throws JsonProcessingException {
 		return om.writeValueAsString(this);
 	}
+
+	public byte[] writeValueAsBytes() throws JsonProcessingException {
+		return om.writeValueAsBytes(this);
+	}
 }
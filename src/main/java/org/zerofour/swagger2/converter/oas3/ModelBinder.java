@@ -0,0 +1,240 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import io.swagger.v3.oas.models.ExternalDocumentation;
+import io.swagger.v3.oas.models.info.Contact;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.info.License;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.Discriminator;
+import io.swagger.v3.oas.models.media.FileSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.media.XML;
+import io.swagger.v3.oas.models.security.Scopes;
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+import io.swagger.v3.oas.models.tags.Tag;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds JSON maps to swagger-models types by calling their setters directly, as JSON.convert(Class)
+ * did through Jackson but without the TokenBuffer round trip. A setter is called for every key present,
+ * even with a null value, and scalars are coerced the way Jackson coerces them. Unknown keys, including
+ * the "x-" extensions, are ignored.
+ */
+final class ModelBinder {
+
+	private ModelBinder() {
+	}
+
+	static Info info(JSON oas2Info) {
+		Info info = new Info();
+		for(Map.Entry<String,Object> e: oas2Info.entrySet()) {
+			Object value = e.getValue();
+			switch(e.getKey()) {
+				case "title": info.setTitle(string(value)); break;
+				case "description": info.setDescription(string(value)); break;
+				case "termsOfService": info.setTermsOfService(string(value)); break;
+				case "contact": info.setContact((value != null) ? contact((JSON)value) : null); break;
+				case "license": info.setLicense((value != null) ? license((JSON)value) : null); break;
+				case "version": info.setVersion(string(value)); break;
+			}
+		}
+		return info;
+	}
+
+	private static Contact contact(JSON oas2Contact) {
+		Contact contact = new Contact();
+		for(Map.Entry<String,Object> e: oas2Contact.entrySet()) {
+			switch(e.getKey()) {
+				case "name": contact.setName(string(e.getValue())); break;
+				case "url": contact.setUrl(string(e.getValue())); break;
+				case "email": contact.setEmail(string(e.getValue())); break;
+			}
+		}
+		return contact;
+	}
+
+	private static License license(JSON oas2License) {
+		License license = new License();
+		for(Map.Entry<String,Object> e: oas2License.entrySet()) {
+			switch(e.getKey()) {
+				case "name": license.setName(string(e.getValue())); break;
+				case "url": license.setUrl(string(e.getValue())); break;
+			}
+		}
+		return license;
+	}
+
+	static Tag tag(JSON oas2Tag) {
+		Tag tag = new Tag();
+		for(Map.Entry<String,Object> e: oas2Tag.entrySet()) {
+			Object value = e.getValue();
+			switch(e.getKey()) {
+				case "name": tag.setName(string(value)); break;
+				case "description": tag.setDescription(string(value)); break;
+				case "externalDocs": tag.setExternalDocs((value != null) ? externalDocs((JSON)value) : null); break;
+			}
+		}
+		return tag;
+	}
+
+	static ExternalDocumentation externalDocs(JSON oas2ExternalDocs) {
+		ExternalDocumentation externalDocs = new ExternalDocumentation();
+		for(Map.Entry<String,Object> e: oas2ExternalDocs.entrySet()) {
+			switch(e.getKey()) {
+				case "description": externalDocs.setDescription(string(e.getValue())); break;
+				case "url": externalDocs.setUrl(string(e.getValue())); break;
+			}
+		}
+		return externalDocs;
+	}
+
+	static SecurityRequirement securityRequirement(JSON oas2Security) {
+		SecurityRequirement requirement = new SecurityRequirement();
+		for(Map.Entry<String,Object> e: oas2Security.entrySet()) {
+			requirement.put(e.getKey(), (e.getValue() != null) ? strings((List<?>)e.getValue()) : null);
+		}
+		return requirement;
+	}
+
+	static Scopes scopes(JSON oas2Scopes) {
+		Scopes scopes = new Scopes();
+		for(Map.Entry<String,Object> e: oas2Scopes.entrySet()) {
+			scopes.put(e.getKey(), string(e.getValue()));
+		}
+		return scopes;
+	}
+
+	/**
+	 * Sets the fields of this level of a Swagger 2.0 schema on the schema; "items", "properties",
+	 * "additionalProperties" and "$ref" are left to the caller.
+	 */
+	static <T extends Schema> T schema(JSON oas2Schema, T schema) {
+		for(Map.Entry<String,Object> e: oas2Schema.entrySet()) {
+			Object value = e.getValue();
+			switch(e.getKey()) {
+				case "title": schema.setTitle(string(value)); break;
+				case "description": schema.setDescription(string(value)); break;
+				case "type": schema.setType(string(value)); break;
+				case "format": schema.setFormat(string(value)); break;
+				case "pattern": schema.setPattern(string(value)); break;
+				case "default": schema.setDefault(value); break;
+				case "example": schema.setExample(value); break;
+				case "enum": schema.setEnum((value != null) ? enumValues(schema, (List<?>)value) : null); break;
+				case "required": schema.setRequired((value != null) ? strings((List<?>)value) : null); break;
+				case "multipleOf": schema.setMultipleOf(decimal(value)); break;
+				case "maximum": schema.setMaximum(decimal(value)); break;
+				case "minimum": schema.setMinimum(decimal(value)); break;
+				case "exclusiveMaximum": schema.setExclusiveMaximum(bool(value)); break;
+				case "exclusiveMinimum": schema.setExclusiveMinimum(bool(value)); break;
+				case "maxLength": schema.setMaxLength(integer(value)); break;
+				case "minLength": schema.setMinLength(integer(value)); break;
+				case "maxItems": schema.setMaxItems(integer(value)); break;
+				case "minItems": schema.setMinItems(integer(value)); break;
+				case "maxProperties": schema.setMaxProperties(integer(value)); break;
+				case "minProperties": schema.setMinProperties(integer(value)); break;
+				case "uniqueItems": schema.setUniqueItems(bool(value)); break;
+				case "nullable": schema.setNullable(bool(value)); break;
+				case "readOnly": schema.setReadOnly(bool(value)); break;
+				case "writeOnly": schema.setWriteOnly(bool(value)); break;
+				case "deprecated": schema.setDeprecated(bool(value)); break;
+				case "externalDocs": schema.setExternalDocs((value != null) ? externalDocs((JSON)value) : null); break;
+				case "xml": schema.setXml((value != null) ? xml((JSON)value) : null); break;
+				// Swagger 2.0 names the discriminator property, OAS3 wraps it in an object
+				case "discriminator": schema.setDiscriminator(discriminator(value)); break;
+				case "not": schema.setNot((value != null) ? schema((JSON)value, new Schema()) : null); break;
+			}
+		}
+		return schema;
+	}
+
+	private static XML xml(JSON oas2Xml) {
+		XML xml = new XML();
+		for(Map.Entry<String,Object> e: oas2Xml.entrySet()) {
+			switch(e.getKey()) {
+				case "name": xml.setName(string(e.getValue())); break;
+				case "namespace": xml.setNamespace(string(e.getValue())); break;
+				case "prefix": xml.setPrefix(string(e.getValue())); break;
+				case "attribute": xml.setAttribute(bool(e.getValue())); break;
+				case "wrapped": xml.setWrapped(bool(e.getValue())); break;
+			}
+		}
+		return xml;
+	}
+
+	private static Discriminator discriminator(Object value) {
+		if(value instanceof JSON) {
+			Object propertyName = ((JSON)value).get("propertyName");
+			return new Discriminator().propertyName(string(propertyName));
+		}
+		return (value != null) ? new Discriminator().propertyName(string(value)) : null;
+	}
+
+	// enum values typed as the schema's values, as Jackson binds List<T>
+	private static List enumValues(Schema schema, List<?> values) {
+		List<Object> enumValues = new ArrayList<>(values.size());
+		for(Object value: values) {
+			if(schema instanceof StringSchema || schema instanceof FileSchema) {
+				enumValues.add(string(value));
+			}
+			else if(schema instanceof BooleanSchema) {
+				enumValues.add(bool(value));
+			}
+			else {
+				enumValues.add(value);
+			}
+		}
+		return enumValues;
+	}
+
+	private static List<String> strings(List<?> values) {
+		List<String> strings = new ArrayList<>(values.size());
+		for(Object value: values) {
+			strings.add(string(value));
+		}
+		return strings;
+	}
+
+	static String string(Object value) {
+		return (value == null || value instanceof String) ? (String)value : value.toString();
+	}
+
+	static Boolean bool(Object value) {
+		if(value == null || value instanceof Boolean) {
+			return (Boolean)value;
+		}
+		if(value instanceof Number) {
+			return ((Number)value).intValue() != 0;
+		}
+		return Boolean.valueOf(value.toString().trim());
+	}
+
+	static Integer integer(Object value) {
+		if(value == null || value instanceof Integer) {
+			return (Integer)value;
+		}
+		if(value instanceof Number) {
+			return ((Number)value).intValue();
+		}
+		return Integer.valueOf(value.toString().trim());
+	}
+
+	// JSON keeps integers as Integer, Long or BigInteger and decimals as BigDecimal
+	static BigDecimal decimal(Object value) {
+		if(value == null || value instanceof BigDecimal) {
+			return (BigDecimal)value;
+		}
+		if(value instanceof BigInteger) {
+			return new BigDecimal((BigInteger)value);
+		}
+		if(value instanceof Integer || value instanceof Long) {
+			return BigDecimal.valueOf(((Number)value).longValue());
+		}
+		return new BigDecimal(value.toString().trim());
+	}
+}
@@ -0,0 +1,244 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The path items and schemas of the last conversion of a document, each with a content hash of the
+ * Swagger 2.0 source it was converted from. A conversion given the state reuses every path item and
+ * definition whose source did not change and converts only the rest.
+ *
+ * Reused objects are shared between the old and the new OpenAPI, which are not modified once converted.
+ * Their serialized form is kept as well, so they are not serialized again either, see {@link #toJSON(OpenAPI)}.
+ */
+public final class OAS3ConversionState {
+
+	private volatile Map<String,Converted<PathItem>> paths = Collections.emptyMap();
+	private volatile Map<String,Converted<Schema>> schemas = Collections.emptyMap();
+	private volatile int reusedPaths = 0;
+	private volatile int convertedPaths = 0;
+	private volatile int reusedSchemas = 0;
+	private volatile int convertedSchemas = 0;
+
+	/**
+	 * Forgets every converted path item and schema, so the next conversion converts everything.
+	 */
+	public synchronized void clear() {
+		paths = Collections.emptyMap();
+		schemas = Collections.emptyMap();
+	}
+
+	/**
+	 * The document converted with this state as a JSON tree, the same as {@code JSON.readValue(openAPI)}.
+	 * The trees of the path items and schemas reused from an earlier conversion are shared, not serialized again,
+	 * so the result must not be modified.
+	 */
+	public JSON toJSON(OpenAPI openAPI) throws IOException {
+		Paths paths = openAPI.getPaths();
+		Map<String,Schema> schemas = (openAPI.getComponents() != null) ? openAPI.getComponents().getSchemas() : null;
+
+		// everything else, with empty "paths" and "schemas" keeping their place in the document
+		JSON json = JSON.readValue(withoutPathsAndSchemas(openAPI));
+		if(paths != null) {
+			Map<String,Converted<PathItem>> converted = this.paths;
+			JSON pathsJSON = (JSON)json.get("paths");
+			for(Map.Entry<String,PathItem> e: paths.entrySet()) {
+				pathsJSON.put(e.getKey(), toJSON(converted.get(e.getKey()), e.getValue()));
+			}
+		}
+		if(schemas != null) {
+			Map<String,Converted<Schema>> converted = this.schemas;
+			JSON schemasJSON = (JSON)((JSON)json.get("components")).get("schemas");
+			for(Map.Entry<String,Schema> e: schemas.entrySet()) {
+				schemasJSON.put(e.getKey(), toJSON(converted.get(e.getKey()), e.getValue()));
+			}
+		}
+		return json;
+	}
+
+	private static <T> Object toJSON(Converted<T> converted, T value) throws IOException {
+		if(converted == null || converted.value != value) {
+			return JSON.readValue(value);
+		}
+		JSON json = converted.json;
+		if(json == null) {
+			json = JSON.readValue(value);
+			converted.json = json;
+		}
+		return json;
+	}
+
+	private static OpenAPI withoutPathsAndSchemas(OpenAPI openAPI) {
+		OpenAPI copy = new OpenAPI();
+		copy.setOpenapi(openAPI.getOpenapi());
+		copy.setInfo(openAPI.getInfo());
+		copy.setExternalDocs(openAPI.getExternalDocs());
+		copy.setServers(openAPI.getServers());
+		copy.setSecurity(openAPI.getSecurity());
+		copy.setTags(openAPI.getTags());
+		copy.setPaths((openAPI.getPaths() != null) ? new Paths() : null);
+		copy.setExtensions(openAPI.getExtensions());
+
+		Components components = openAPI.getComponents();
+		if(components != null) {
+			Components copyComponents = new Components();
+			copyComponents.setSchemas((components.getSchemas() != null) ? new LinkedHashMap<>() : null);
+			copyComponents.setResponses(components.getResponses());
+			copyComponents.setParameters(components.getParameters());
+			copyComponents.setExamples(components.getExamples());
+			copyComponents.setRequestBodies(components.getRequestBodies());
+			copyComponents.setHeaders(components.getHeaders());
+			copyComponents.setSecuritySchemes(components.getSecuritySchemes());
+			copyComponents.setLinks(components.getLinks());
+			copyComponents.setCallbacks(components.getCallbacks());
+			copyComponents.setExtensions(components.getExtensions());
+			copy.setComponents(copyComponents);
+		}
+		return copy;
+	}
+
+	public int getReusedPaths() {
+		return reusedPaths;
+	}
+
+	public int getConvertedPaths() {
+		return convertedPaths;
+	}
+
+	public int getReusedSchemas() {
+		return reusedSchemas;
+	}
+
+	public int getConvertedSchemas() {
+		return convertedSchemas;
+	}
+
+	Generation begin(RefTable refs) {
+		return new Generation(paths, schemas, refs);
+	}
+
+	// the last conversion to finish wins, both of them are complete conversions of their own source
+	synchronized void commit(Generation generation) {
+		paths = generation.nextPaths;
+		schemas = generation.nextSchemas;
+		reusedPaths = generation.reusedPaths.get();
+		convertedPaths = generation.convertedPaths.get();
+		reusedSchemas = generation.reusedSchemas.get();
+		convertedSchemas = generation.convertedSchemas.get();
+	}
+
+	/**
+	 * A single conversion against the state, safe to use from the threads of a parallel conversion.
+	 */
+	static final class Generation {
+		private final Map<String,Converted<PathItem>> paths;
+		private final Map<String,Converted<Schema>> schemas;
+		private final RefTable refs;
+		private final Map<String,Converted<PathItem>> nextPaths = new ConcurrentHashMap<>();
+		private final Map<String,Converted<Schema>> nextSchemas = new ConcurrentHashMap<>();
+		private final AtomicInteger reusedPaths = new AtomicInteger();
+		private final AtomicInteger convertedPaths = new AtomicInteger();
+		private final AtomicInteger reusedSchemas = new AtomicInteger();
+		private final AtomicInteger convertedSchemas = new AtomicInteger();
+
+		private Generation(Map<String,Converted<PathItem>> paths, Map<String,Converted<Schema>> schemas,
+		                   RefTable refs) {
+			this.paths = paths;
+			this.schemas = schemas;
+			this.refs = refs;
+		}
+
+		PathItem pathItem(String path, JSON oas2Path, Function<JSON,PathItem> converter) {
+			return reuseOrConvert(paths, nextPaths, path, oas2Path, converter, reusedPaths, convertedPaths);
+		}
+
+		Schema schema(String name, JSON oas2Schema, Function<JSON,Schema> converter) {
+			return reuseOrConvert(schemas, nextSchemas, name, oas2Schema, converter, reusedSchemas, convertedSchemas);
+		}
+
+		/**
+		 * The serialized form of a path item converted or reused by this generation.
+		 */
+		String pathItemFragment(String path) throws IOException {
+			return fragment(nextPaths.get(path));
+		}
+
+		/**
+		 * The serialized form of a schema converted or reused by this generation.
+		 */
+		String schemaFragment(String name) throws IOException {
+			return fragment(nextSchemas.get(name));
+		}
+
+		private static String fragment(Converted<?> converted) throws IOException {
+			String fragment = converted.fragment;
+			if(fragment == null) {
+				fragment = JSON.writeValueAsString(converted.value);
+				converted.fragment = fragment;
+			}
+			return fragment;
+		}
+
+		private <T> T reuseOrConvert(Map<String,Converted<T>> previous,
+		                                    Map<String,Converted<T>> next,
+		                                    String name,
+		                                    JSON source,
+		                                    Function<JSON,T> converter,
+		                                    AtomicInteger reused,
+		                                    AtomicInteger converted) {
+			int hash = source.hashCode();
+			Converted<T> entry = previous.get(name);
+			if(entry != null && entry.hash == hash && entry.source.equals(source)) {
+				// the fragment did not change, but what it refers to may have, so its references are checked again
+				for(String ref: entry.refs()) {
+					refs.convert(ref);
+				}
+				reused.incrementAndGet();
+			}
+			else {
+				entry = new Converted<>(source, hash, converter.apply(source));
+				converted.incrementAndGet();
+			}
+			next.put(name, entry);
+			return entry.value;
+		}
+	}
+
+	private static final class Converted<T> {
+		private final JSON source;
+		private final int hash;
+		private final T value;
+		// serialized lazily, by toJSON in tree mode and as a fragment in streaming mode
+		private volatile JSON json;
+		private volatile String fragment;
+		private volatile Set<String> refs;
+
+		private Converted(JSON source, int hash, T value) {
+			this.source = source;
+			this.hash = hash;
+			this.value = value;
+		}
+
+		// the $ref values of the source, collected the first time the entry is reused
+		private Set<String> refs() {
+			Set<String> refs = this.refs;
+			if(refs == null) {
+				refs = References.refs(source);
+				this.refs = refs;
+			}
+			return refs;
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counters of a single conversion, filled in by the converter, see
+ * {@link OAS3Converter#convertOpenAPI(JSON, OAS3ConversionState, OAS3ConversionStats)}.
+ */
+public final class OAS3ConversionStats {
+	private final AtomicInteger schemaMemoHits = new AtomicInteger();
+	private final AtomicInteger schemaMemoMisses = new AtomicInteger();
+
+	/**
+	 * Number of schemas found in the memo table of the conversion instead of being converted again.
+	 */
+	public int getSchemaMemoHits() {
+		return schemaMemoHits.get();
+	}
+
+	/**
+	 * Number of schemas converted, that is not found in the memo table of the conversion.
+	 */
+	public int getSchemaMemoMisses() {
+		return schemaMemoMisses.get();
+	}
+
+	void schemaMemoHit() {
+		schemaMemoHits.incrementAndGet();
+	}
+
+	void schemaMemoMiss() {
+		schemaMemoMisses.incrementAndGet();
+	}
+}
@@ -11,31 +11,109 @@ import io.swagger.v3.oas.models.responses.ApiResponses;
 import io.swagger.v3.oas.models.security.*;
 import io.swagger.v3.oas.models.servers.Server;
 import io.swagger.v3.oas.models.tags.Tag;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
-import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 public class OAS3Converter {
+	private static final Log logger = LogFactory.getLog(OAS3Converter.class);
+
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+	// the operations convertPathItem converts, and counts against OAS3Limits
+	private static final String[] OPERATIONS = { "get", "put", "post", "delete", "options" };
+
+	private final Executor executor;
+	private final int parallelism;
+	private final int parallelThreshold;
+	private boolean pruneComponents = false;
+	private OAS3Limits limits = OAS3Limits.NONE;
+
+	public OAS3Converter() {
+		this(null, 1, DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	public OAS3Converter(ForkJoinPool pool) {
+		this(pool, pool.getParallelism(), DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Converts "paths" and "definitions" with at least parallelThreshold entries in chunks on the executor.
+	 * The chunks are merged back in the original order, so the result is the same as a serial conversion.
+	 *
+	 * @param executor executor for the chunks, null to always convert serially
+	 * @param parallelism number of threads of the executor, used to size the chunks
+	 * @param parallelThreshold minimum number of entries converted in parallel
+	 */
+	public OAS3Converter(Executor executor, int parallelism, int parallelThreshold) {
+		this.executor = executor;
+		this.parallelism = Math.max(1, parallelism);
+		this.parallelThreshold = parallelThreshold;
+	}
 
 	public OpenAPI convertOpenAPI(JSON oas2) {
+		return convertOpenAPI(oas2, (OAS3ConversionState)null);
+	}
+
+	/**
+	 * Converts only the operations the filter selects, and the definitions, parameters and responses
+	 * reachable from them through $ref. The whole document is converted if the filter is null.
+	 */
+	public OpenAPI convertOpenAPI(JSON oas2, OAS3PathFilter filter) {
+		return convertOpenAPI(oas2, filter, new OAS3ConversionStats());
+	}
+
+	/**
+	 * As {@link #convertOpenAPI(JSON, OAS3PathFilter)}, counting the conversion in stats.
+	 */
+	public OpenAPI convertOpenAPI(JSON oas2, OAS3PathFilter filter, OAS3ConversionStats stats) {
+		if(filter == null) {
+			return convertOpenAPI(oas2, (OAS3ConversionState)null, stats);
+		}
+		// a filtered document is already pruned
+		return convert(filter.apply(oas2), null, stats);
+	}
+
+	/**
+	 * Converts the document, reusing the path items and schemas of the last conversion with the same state
+	 * whose Swagger 2.0 source did not change. The state is updated for the next conversion.
+	 */
+	public OpenAPI convertOpenAPI(JSON oas2, OAS3ConversionState state) {
+		return convertOpenAPI(oas2, state, new OAS3ConversionStats());
+	}
+
+	/**
+	 * As {@link #convertOpenAPI(JSON, OAS3ConversionState)}, counting the conversion in stats.
+	 */
+	public OpenAPI convertOpenAPI(JSON oas2, OAS3ConversionState state, OAS3ConversionStats stats) {
+		return convert(pruneComponents ? References.retainReachable(oas2) : oas2, state, stats);
+	}
+
+	private OpenAPI convert(JSON oas2, OAS3ConversionState state, OAS3ConversionStats stats) {
 		// check version
 		if(oas2.get("swagger") == null
 			|| !((String)oas2.get("swagger")).equals("2.0")) {
 			return null;
 		}
 
+		ConversionContext context = newContext(state, new RefTable(oas2), stats);
 		OpenAPI openAPI = new OpenAPI();
 
 		// info
 		if(oas2.get("info") != null) {
-			openAPI.setInfo(((JSON)oas2.get("info")).convert(Info.class));
+			openAPI.setInfo(convertInfo((JSON)oas2.get("info")));
 		}
 		// servers
-		openAPI.setServers(Arrays.asList(new Server().url((String)oas2.get("basePath"))));
+		openAPI.setServers(convertServers((String)oas2.get("basePath")));
 		// paths
-		openAPI.setPaths(convertPaths((JSON)oas2.get("paths")));
+		openAPI.setPaths(convertPaths(context, (JSON)oas2.get("paths")));
 		// components
-		openAPI.setComponents(convertComponents((JSON)oas2.get("definitions"),
+		openAPI.setComponents(convertComponents(context, (JSON)oas2.get("definitions"),
 			(List)oas2.get("produces"),
 			(JSON)oas2.get("responses"),
 			(JSON)oas2.get("parameters"),
@@ -43,54 +121,177 @@ public class OAS3Converter {
 		// security
 		if(oas2.get("security") != null) {
 			for(JSON oas2Security: (List<JSON>)oas2.get("security")) {
-				openAPI.addSecurityItem(oas2Security.convert(SecurityRequirement.class));
+				openAPI.addSecurityItem(convertSecurityRequirement(oas2Security));
 			}
 		}
 		// tags
 		if(oas2.get("tags") != null) {
 			for(JSON oas2Tag: (List<JSON>)oas2.get("tags")) {
-				openAPI.addTagsItem(oas2Tag.convert(Tag.class));
+				openAPI.addTagsItem(convertTag(oas2Tag));
 			}
 		}
 		// externalDocs
 		if(oas2.get("externalDocs") != null) {
-			openAPI.setExternalDocs(((JSON)oas2.get("externalDocs")).convert(ExternalDocumentation.class));
+			openAPI.setExternalDocs(convertExternalDocs((JSON)oas2.get("externalDocs")));
 		}
 
+		warnDanglingRefs(context);
+		if(state != null) {
+			state.commit(context.getGeneration());
+		}
 		return openAPI;
 	}
 
-	private Paths convertPaths(JSON oas2Paths) {
+	/**
+	 * Drops the "definitions", "parameters" and "responses" no operation refers to, directly or through
+	 * other components, and the "securityDefinitions" no security requirement names, before converting.
+	 * The streaming converter does not prune.
+	 */
+	public void setPruneComponents(boolean pruneComponents) {
+		this.pruneComponents = pruneComponents;
+	}
+
+	public boolean isPruneComponents() {
+		return pruneComponents;
+	}
+
+	/**
+	 * Limits every conversion is checked against, {@link OAS3Limits#NONE} by default.
+	 * A conversion over a limit throws {@link OAS3LimitExceededException}.
+	 */
+	public void setLimits(OAS3Limits limits) {
+		this.limits = (limits != null) ? limits : OAS3Limits.NONE;
+	}
+
+	public OAS3Limits getLimits() {
+		return limits;
+	}
+
+	void warnDanglingRefs(ConversionContext context) {
+		Set<String> danglingRefs = context.getDanglingRefs();
+		if(!danglingRefs.isEmpty()) {
+			logger.warn(danglingRefs.size() + " $ref(s) point to nothing in the document: " + danglingRefs);
+		}
+	}
+
+	ConversionContext newContext(OAS3ConversionState state, OAS3ConversionStats stats) {
+		return newContext(state, new RefTable(), stats);
+	}
+
+	private ConversionContext newContext(OAS3ConversionState state, RefTable refs, OAS3ConversionStats stats) {
+		return new ConversionContext((state != null) ? state.begin(refs) : null, refs, limits, stats);
+	}
+
+	Info convertInfo(JSON oas2Info) {
+		return ModelBinder.info(oas2Info);
+	}
+
+	List<Server> convertServers(String oas2BasePath) {
+		return Arrays.asList(new Server().url(oas2BasePath));
+	}
+
+	SecurityRequirement convertSecurityRequirement(JSON oas2Security) {
+		return ModelBinder.securityRequirement(oas2Security);
+	}
+
+	Tag convertTag(JSON oas2Tag) {
+		return ModelBinder.tag(oas2Tag);
+	}
+
+	ExternalDocumentation convertExternalDocs(JSON oas2ExternalDocs) {
+		return ModelBinder.externalDocs(oas2ExternalDocs);
+	}
+
+	private Paths convertPaths(ConversionContext context, JSON oas2Paths) {
 		Paths paths = new Paths();
-		for(Map.Entry<String,Object> e: oas2Paths.entrySet()) {
-			JSON oas2Path = (JSON)e.getValue();
-			PathItem pathItem = new PathItem();
-			if(oas2Path.get("$ref") != null) {
-				pathItem.$ref(convertRef((String)oas2Path.get("$ref")));
+		List<Map.Entry<String,Object>> entries = new ArrayList<>(oas2Paths.entrySet());
+		List<PathItem> pathItems = convertAll(entries, e -> convertPathItem(context, e.getKey(), (JSON)e.getValue()));
+		for(int i = 0; i < entries.size(); i++) {
+			paths.addPathItem(entries.get(i).getKey(), pathItems.get(i));
+		}
+		return paths;
+	}
+
+	private <S,T> List<T> convertAll(List<S> sources, Function<S,T> converter) {
+		List<T> results = new ArrayList<>(sources.size());
+		if(executor == null || sources.size() < parallelThreshold) {
+			for(S source: sources) {
+				results.add(converter.apply(source));
 			}
-			else {
-				if(oas2Path.get("get") != null) {
-					pathItem.get(convertOperation((JSON)oas2Path.get("get")));
-				}
-				if(oas2Path.get("put") != null) {
-					pathItem.put(convertOperation((JSON)oas2Path.get("put")));
-				}
-				if(oas2Path.get("post") != null) {
-					pathItem.post(convertOperation((JSON)oas2Path.get("post")));
+			return results;
+		}
+
+		// a few chunks per thread, so uneven chunks still keep every thread busy
+		int chunkSize = Math.max(1, (sources.size() + parallelism * 4 - 1) / (parallelism * 4));
+		List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+		for(int from = 0; from < sources.size(); from += chunkSize) {
+			List<S> chunk = sources.subList(from, Math.min(from + chunkSize, sources.size()));
+			chunks.add(CompletableFuture.supplyAsync(() -> {
+				List<T> converted = new ArrayList<>(chunk.size());
+				for(S source: chunk) {
+					converted.add(converter.apply(source));
 				}
-				if(oas2Path.get("delete") != null) {
-					pathItem.delete(convertOperation((JSON)oas2Path.get("delete")));
+				return converted;
+			}, executor));
+		}
+		for(CompletableFuture<List<T>> chunk: chunks) {
+			try {
+				results.addAll(chunk.join());
+			} catch (CompletionException e) {
+				if(e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)e.getCause();
 				}
-				if(oas2Path.get("options") != null) {
-					pathItem.options(convertOperation((JSON)oas2Path.get("options")));
+				if(e.getCause() instanceof Error) {
+					throw (Error)e.getCause();
 				}
+				throw e;
 			}
-			paths.addPathItem(e.getKey(), pathItem);
 		}
-		return paths;
+		return results;
+	}
+
+	PathItem convertPathItem(ConversionContext context, String path, JSON oas2Path) {
+		// counted before a reused path item is looked up, so the limit does not depend on the state
+		int operations = 0;
+		for(String operation: OPERATIONS) {
+			if(oas2Path.get(operation) != null) {
+				operations++;
+			}
+		}
+		context.countOperations(operations);
+		if(context.getGeneration() == null) {
+			return convertPathItem(context, oas2Path);
+		}
+		return context.getGeneration().pathItem(path, oas2Path, source -> convertPathItem(context, source));
+	}
+
+	private PathItem convertPathItem(ConversionContext context, JSON oas2Path) {
+		PathItem pathItem = new PathItem();
+		if(oas2Path.get("$ref") != null) {
+			pathItem.$ref(context.convertRef((String)oas2Path.get("$ref")));
+		}
+		else {
+			if(oas2Path.get("get") != null) {
+				pathItem.get(convertOperation(context, (JSON)oas2Path.get("get")));
+			}
+			if(oas2Path.get("put") != null) {
+				pathItem.put(convertOperation(context, (JSON)oas2Path.get("put")));
+			}
+			if(oas2Path.get("post") != null) {
+				pathItem.post(convertOperation(context, (JSON)oas2Path.get("post")));
+			}
+			if(oas2Path.get("delete") != null) {
+				pathItem.delete(convertOperation(context, (JSON)oas2Path.get("delete")));
+			}
+			if(oas2Path.get("options") != null) {
+				pathItem.options(convertOperation(context, (JSON)oas2Path.get("options")));
+			}
+		}
+		return pathItem;
 	}
 
-	private Components convertComponents(JSON oas2Definitions,
+	private Components convertComponents(ConversionContext context,
+	                                     JSON oas2Definitions,
 	                                     List<String> oas2Produces,
 	                                     JSON oas2Responses,
 	                                     JSON oas2Parameters,
@@ -99,20 +300,22 @@ public class OAS3Converter {
 
 		// schemas
 		if(oas2Definitions != null) {
-			for(Map.Entry<String,Object> e: oas2Definitions.entrySet()) {
-				components.addSchemas(e.getKey(), convertSchema((JSON)e.getValue()));
+			List<Map.Entry<String,Object>> entries = new ArrayList<>(oas2Definitions.entrySet());
+			List<Schema> schemas = convertAll(entries, e -> convertDefinition(context, e.getKey(), (JSON)e.getValue()));
+			for(int i = 0; i < entries.size(); i++) {
+				components.addSchemas(entries.get(i).getKey(), schemas.get(i));
 			}
 		}
 		// responses
 		if(oas2Responses != null) {
 			for(Map.Entry<String,Object> e: oas2Responses.entrySet()) {
-				components.addResponses(e.getKey(), convertResponse(oas2Produces, (JSON)e.getValue()));
+				components.addResponses(e.getKey(), convertResponse(context, oas2Produces, (JSON)e.getValue()));
 			}
 		}
 		// parameters
 		if(oas2Parameters != null) {
 			for(Map.Entry<String,Object> e: oas2Parameters.entrySet()) {
-				Parameter parameter = convertParameter((JSON)e.getValue());
+				Parameter parameter = convertParameter(context, (JSON)e.getValue());
 				if(parameter != null) {
 					components.addParameters(e.getKey(), parameter);
 				}
@@ -121,25 +324,32 @@ public class OAS3Converter {
 		// securitySchemes
 		if(oas2SecurityDefinitions != null) {
 			for(Map.Entry<String,Object> e: oas2SecurityDefinitions.entrySet()) {
-				components.addSecuritySchemes(e.getKey(), convertSecurityScheme((JSON)e.getValue()));
+				components.addSecuritySchemes(e.getKey(), convertSecurityScheme(context, (JSON)e.getValue()));
 			}
 		}
 
 		return components;
 	}
 
-	private Operation convertOperation(JSON oas2Operation) {
+	Schema convertDefinition(ConversionContext context, String name, JSON oas2Schema) {
+		if(context.getGeneration() == null) {
+			return convertSchema(context, oas2Schema);
+		}
+		return context.getGeneration().schema(name, oas2Schema, source -> convertSchema(context, source));
+	}
+
+	private Operation convertOperation(ConversionContext context, JSON oas2Operation) {
 		Operation operation = new Operation();
 
 		// tags
-		operation.setTags((List)oas2Operation.get("tags"));
+		operation.setTags(copyOf((List)oas2Operation.get("tags")));
 		// summary
 		operation.setSummary((String)oas2Operation.get("summary"));
 		// description
 		operation.setDescription((String)oas2Operation.get("description"));
 		// externalDocs
 		if(oas2Operation.get("externalDocs") != null) {
-			operation.setExternalDocs(((JSON)oas2Operation.get("externalDocs")).convert(ExternalDocumentation.class));
+			operation.setExternalDocs(convertExternalDocs((JSON)oas2Operation.get("externalDocs")));
 		}
 		// operationId
 		operation.setOperationId((String)oas2Operation.get("operationId"));
@@ -148,7 +358,7 @@ public class OAS3Converter {
 		if(oas2Parameters != null && oas2Parameters.size() > 0) {
 			List<Parameter> parameters = new ArrayList<>();
 			for(JSON oas2Parameter: oas2Parameters) {
-				Parameter parameter = convertParameter(oas2Parameter);
+				Parameter parameter = convertParameter(context, oas2Parameter);
 				if(parameter != null) {
 					parameters.add(parameter);
 				}
@@ -156,13 +366,13 @@ public class OAS3Converter {
 			operation.setParameters(parameters);
 		}
 		// requestBody
-		operation.setRequestBody(convertRequestBody((List)oas2Operation.get("consumes"), oas2Parameters));
+		operation.setRequestBody(convertRequestBody(context, (List)oas2Operation.get("consumes"), oas2Parameters));
 		// responses
 		if(oas2Operation.get("responses") != null) {
 			operation.setResponses(new ApiResponses());
 			for(Map.Entry<String,Object> e: ((JSON)oas2Operation.get("responses")).entrySet()) {
 				operation.getResponses().addApiResponse(e.getKey(),
-					convertResponse((List)oas2Operation.get("produces"), (JSON)e.getValue()));
+					convertResponse(context, (List)oas2Operation.get("produces"), (JSON)e.getValue()));
 			}
 		}
 		// deprecated
@@ -170,19 +380,19 @@ public class OAS3Converter {
 		// security
 		if(oas2Operation.get("security") != null) {
 			for(Object securityItem: (List)oas2Operation.get("security")) {
-				operation.addSecurityItem(((JSON)securityItem).convert(SecurityRequirement.class));
+				operation.addSecurityItem(convertSecurityRequirement((JSON)securityItem));
 			}
 		}
 
 		return operation;
 	}
 
-	private Parameter convertParameter(JSON oas2Parameter) {
+	Parameter convertParameter(ConversionContext context, JSON oas2Parameter) {
 		Parameter parameter = null;
 
 		if(oas2Parameter.get("$ref") != null) {
 			parameter = new Parameter();
-			parameter.set$ref(convertRef((String)oas2Parameter.get("$ref")));
+			parameter.set$ref(context.convertRef((String)oas2Parameter.get("$ref")));
 			return parameter;
 		}
 
@@ -213,17 +423,20 @@ public class OAS3Converter {
 			parameter.setStyle(Parameter.StyleEnum.SIMPLE);
 		}
 		// schema
-		parameter.setSchema(convertSchemaFromParameter(oas2Parameter));
+		parameter.setSchema(convertSchemaFromParameter(context, oas2Parameter));
 
 		return parameter;
 	}
 
-	private RequestBody convertRequestBody(List<String> oas2Consumes, List<JSON> oas2Parameters) {
+	private RequestBody convertRequestBody(ConversionContext context, List<String> oas2Consumes, List<JSON> oas2Parameters) {
 		RequestBody requestBody = null;
 
 		List<JSON> formParameters = new ArrayList<>();
 		JSON bodyParameter = null;
 
+		if(oas2Parameters == null) {
+			return null;
+		}
 		for(JSON oas2Parameter: oas2Parameters) {
 			String in = (String)oas2Parameter.get("in");
 			if(in != null && in.equals("formData")) {
@@ -234,15 +447,11 @@ public class OAS3Converter {
 			}
 		}
 
-		if(oas2Consumes == null) {
-			oas2Consumes = new ArrayList<>();
-		}
-
 		if(bodyParameter != null) {
 			requestBody = new RequestBody();
 
 			if(bodyParameter.get("$ref") != null) {
-				requestBody.set$ref(convertRef((String)bodyParameter.get("$ref")));
+				requestBody.set$ref(context.convertRef((String)bodyParameter.get("$ref")));
 				return requestBody;
 			}
 
@@ -253,11 +462,8 @@ public class OAS3Converter {
 			// content
 			requestBody.setContent(new Content());
 			MediaType mediaType = new MediaType()
-				.schema(convertSchema((JSON)bodyParameter.get("schema")));
-			if(oas2Consumes.size() == 0) {
-				oas2Consumes.add("application/json");
-			}
-			for(String oas2Consume: oas2Consumes) {
+				.schema(convertSchema(context, (JSON)bodyParameter.get("schema")));
+			for(String oas2Consume: defaultIfEmpty(oas2Consumes, "application/json")) {
 				requestBody.getContent().addMediaType(oas2Consume, mediaType);
 			}
 		}
@@ -277,17 +483,14 @@ public class OAS3Converter {
 					.required(required));
 			for(JSON formParameter: formParameters) {
 				mediaType.getSchema().getProperties().put(formParameter.get("name"),
-					convertSchemaFromParameter(formParameter));
+					convertSchemaFromParameter(context, formParameter));
 				String contentType = getContentTypeOfFormParameter(formParameter);
 				if(contentType != null) {
 					mediaType.addEncoding((String)formParameter.get("name"),
 						new Encoding().contentType(contentType));
 				}
 			}
-			if(oas2Consumes.size() == 0) {
-				oas2Consumes.add(getDefaultContentTypeOfFormParameters(formParameters));
-			}
-			for(String oas2Consume: oas2Consumes) {
+			for(String oas2Consume: defaultIfEmpty(oas2Consumes, getDefaultContentTypeOfFormParameters(formParameters))) {
 				requestBody.getContent().addMediaType(oas2Consume, mediaType);
 			}
 		}
@@ -295,6 +498,14 @@ public class OAS3Converter {
 		return requestBody;
 	}
 
+	// the caller's consumes/produces list is never modified, it belongs to the Swagger 2.0 input
+	private List<String> defaultIfEmpty(List<String> mediaTypes, String defaultMediaType) {
+		if(mediaTypes == null || mediaTypes.size() == 0) {
+			return Collections.singletonList(defaultMediaType);
+		}
+		return mediaTypes;
+	}
+
 	private List<String> getRequiredOfFormParameters(List<JSON> oas2FormParameters) {
 		List<String> required = new ArrayList<>();
 		for(JSON formParameter: oas2FormParameters) {
@@ -328,11 +539,11 @@ public class OAS3Converter {
 		return "application/x-www-form-urlencoded";
 	}
 
-	private ApiResponse convertResponse(List<String> oas2Produces, JSON oas2Response) {
+	ApiResponse convertResponse(ConversionContext context, List<String> oas2Produces, JSON oas2Response) {
 		ApiResponse apiResponse = new ApiResponse();
 
 		if (oas2Response.get("$ref") != null) {
-			apiResponse.set$ref(convertRef((String) oas2Response.get("$ref")));
+			apiResponse.set$ref(context.convertRef((String) oas2Response.get("$ref")));
 		} else {
 			// description
 			apiResponse.setDescription((String) oas2Response.get("description"));
@@ -341,21 +552,15 @@ public class OAS3Converter {
 				apiResponse.setHeaders(new HashMap<>());
 				for(Map.Entry<String,Object> e: ((JSON)oas2Response.get("headers")).entrySet()) {
 					apiResponse.getHeaders().put(e.getKey(),
-						convertHeader((JSON)e.getValue()));
+						convertHeader(context, (JSON)e.getValue()));
 				}
 			}
 			// content
 			if(oas2Response.get("schema") != null) {
 				apiResponse.setContent(new Content());
 				MediaType mediaType = new MediaType()
-					.schema(convertSchema((JSON)oas2Response.get("schema")));
-				if(oas2Produces == null) {
-					oas2Produces = new ArrayList<>();
-				}
-				if(oas2Produces.size() == 0) {
-					oas2Produces.add("application/json");
-				}
-				for(String oas2Produce: oas2Produces) {
+					.schema(convertSchema(context, (JSON)oas2Response.get("schema")));
+				for(String oas2Produce: defaultIfEmpty(oas2Produces, "application/json")) {
 					apiResponse.getContent().addMediaType(oas2Produce, mediaType);
 				}
 			}
@@ -364,92 +569,119 @@ public class OAS3Converter {
 		return apiResponse;
 	}
 
-	private Header convertHeader(JSON oas2Header) {
+	private Header convertHeader(ConversionContext context, JSON oas2Header) {
 		Header header =new Header();
 		if(oas2Header.get("$ref") != null) {
-			header.set$ref(convertRef((String)oas2Header.get("$ref")));
+			header.set$ref(context.convertRef((String)oas2Header.get("$ref")));
 		}
 		else {
 			// description
 			header.setDescription((String)oas2Header.get("description"));
 			// schema
-			header.setSchema(convertSchemaFromParameter(oas2Header));
+			header.setSchema(convertSchemaFromParameter(context, oas2Header));
 		}
 		return header;
 	}
 
-	private void convertRefOfSchema(JSON oas2Schema) {
+	/**
+	 * Converts a schema without modifying it. Nested schemas are converted recursively, and only the
+	 * fields of this level are bound to the Schema type.
+	 */
+	Schema convertSchema(ConversionContext context, JSON oas2Schema) {
+		return convertSchema(context, oas2Schema, 1);
+	}
+
+	private Schema convertSchema(ConversionContext context, JSON oas2Schema, int depth) {
+		context.checkSchemaDepth(depth);
+		Schema schema = null;
+
 		if(oas2Schema.get("$ref") != null) {
-			oas2Schema.put("$ref", convertRef((String)oas2Schema.get("$ref")));
+			ConversionContext.SchemaKey key = new ConversionContext.SchemaKey(oas2Schema, null, null, null);
+			schema = context.getSchema(key);
+			if(schema == null) {
+				schema = context.putSchema(key,
+					new Schema().$ref(context.convertRef((String)oas2Schema.get("$ref"))));
+			}
+			return schema;
 		}
-		if(oas2Schema.get("items") != null) {
-			convertRefOfSchema((JSON)oas2Schema.get("items"));
+
+		// nested schemas first, so the key of this one compares them by identity
+		String type = (String)oas2Schema.get("type");
+		Schema items = null;
+		if("array".equals(type) && oas2Schema.get("items") != null) {
+			items = convertSchema(context, (JSON)oas2Schema.get("items"), depth + 1);
 		}
+		Map<String,Schema> properties = null;
 		if(oas2Schema.get("properties") != null) {
-			for(Object property: ((JSON)oas2Schema.get("properties")).values()) {
-				convertRefOfSchema((JSON)property);
+			JSON oas2Properties = (JSON)oas2Schema.get("properties");
+			properties = new HashMap<>();
+			for(Map.Entry<String,Object> e: oas2Properties.entrySet()) {
+				properties.put(e.getKey(), convertSchema(context, (JSON)e.getValue(), depth + 1));
 			}
 		}
-	}
-
-	private Schema convertSchema(JSON oas2Schema) {
-		Schema schema = null;
+		Object oas2AdditionalProperties = oas2Schema.get("additionalProperties");
+		Schema additionalProperties = null;
+		if(oas2AdditionalProperties instanceof JSON) {
+			additionalProperties = convertSchema(context, (JSON)oas2AdditionalProperties, depth + 1);
+		}
 
-		convertRefOfSchema(oas2Schema);
+		ConversionContext.SchemaKey key = new ConversionContext.SchemaKey(oas2Schema, items, properties,
+			additionalProperties);
+		schema = context.getSchema(key);
+		if(schema != null) {
+			return schema;
+		}
 
-		if(oas2Schema.get("$ref") != null) {
-			schema = new Schema().$ref((String)oas2Schema.get("$ref"));
+		if("string".equals(type)) {
+			schema = ModelBinder.schema(oas2Schema, new StringSchema());
+		}
+		else if("boolean".equals(type)) {
+			schema = ModelBinder.schema(oas2Schema, new BooleanSchema());
 		}
+		else if("array".equals(type)) {
+			schema = ModelBinder.schema(oas2Schema, new ArraySchema());
+			((ArraySchema)schema).setItems(items);
+		}
+		else if("file".equals(type)) {
+			schema = ModelBinder.schema(oas2Schema, new FileSchema());
+			schema.setType("string");
+			schema.setFormat("binary");
+		}
+		else if("object".equals(type)) {
+			schema = ModelBinder.schema(oas2Schema, new ObjectSchema());
+		}
+		// TODO: need to check to use another Schema type
 		else {
-			String type = (String)oas2Schema.get("type");
-			if("string".equals(type)) {
-				schema = oas2Schema.convert(StringSchema.class);
-			}
-			else if("boolean".equals(type)) {
-				schema = oas2Schema.convert(BooleanSchema.class);
-			}
-			else if("array".equals(type)) {
-				schema = oas2Schema.convert(ArraySchema.class);
-				if(oas2Schema.get("items") != null) {
-					((ArraySchema)schema).setItems(convertSchema((JSON)oas2Schema.get("items")));
-				}
-			}
-			else if("file".equals(type)) {
-				schema = oas2Schema.convert(FileSchema.class);
-				schema.setType("string");
-				schema.setFormat("binary");
-			}
-			else if("object".equals(type)) {
-				schema = oas2Schema.convert(ObjectSchema.class);
-				if(oas2Schema.get("properties") != null) {
-					JSON oas2Properties = (JSON)oas2Schema.get("properties");
-					Map<String,Schema> properties = new HashMap<>();
-					for(Map.Entry<String,Object> e: oas2Properties.entrySet()) {
-						properties.put(e.getKey(), convertSchema((JSON)e.getValue()));
-					}
-					((ObjectSchema)schema).setProperties(properties);
-				}
-			}
-			// TODO: need to check to use another Schema type
-			else {
-				schema = oas2Schema.convert(Schema.class);
-			}
+			schema = ModelBinder.schema(oas2Schema, new Schema());
 		}
-		return schema;
+		if(properties != null) {
+			schema.setProperties(properties);
+		}
+		if(additionalProperties != null) {
+			schema.setAdditionalProperties(additionalProperties);
+		}
+		else if(oas2AdditionalProperties instanceof Boolean) {
+			schema.setAdditionalProperties(oas2AdditionalProperties);
+		}
+		return context.putSchema(key, schema);
 	}
 
-	private Schema convertSchemaFromParameter(JSON oas2Parameter) {
+	private <T> List<T> copyOf(List<T> list) {
+		return (list != null) ? new ArrayList<>(list) : null;
+	}
+
+	private Schema convertSchemaFromParameter(ConversionContext context, JSON oas2Parameter) {
 		Schema schema = null;
 
 		if(oas2Parameter.get("schema") != null) {
-			schema = convertSchema((JSON)oas2Parameter.get("schema"));
+			schema = convertSchema(context, (JSON)oas2Parameter.get("schema"));
 		}
 		else {
 			String type = (String)oas2Parameter.get("type");
 			if("array".equals(type)) {
 				schema = new ArraySchema();
 				if(oas2Parameter.get("items") != null) {
-					((ArraySchema)schema).setItems(convertSchema((JSON)oas2Parameter.get("items")));
+					((ArraySchema)schema).setItems(convertSchema(context, (JSON)oas2Parameter.get("items")));
 				}
 			}
 			else if("file".equals(type)) {
@@ -460,28 +692,28 @@ public class OAS3Converter {
 					.type(type)
 					.format((String)oas2Parameter.get("format"));
 			}
-			schema.setMaximum((BigDecimal) oas2Parameter.get("maximum"));
+			schema.setMaximum(ModelBinder.decimal(oas2Parameter.get("maximum")));
 			schema.setExclusiveMaximum((Boolean) oas2Parameter.get("exclusiveMaximum"));
-			schema.setMinimum((BigDecimal) oas2Parameter.get("minimum"));
-			schema.setExclusiveMaximum((Boolean) oas2Parameter.get("exclusiveMinimum"));
-			schema.setMaxLength((Integer) oas2Parameter.get("maxLength"));
-			schema.setMinLength((Integer) oas2Parameter.get("minLength"));
+			schema.setMinimum(ModelBinder.decimal(oas2Parameter.get("minimum")));
+			schema.setExclusiveMinimum((Boolean) oas2Parameter.get("exclusiveMinimum"));
+			schema.setMaxLength(ModelBinder.integer(oas2Parameter.get("maxLength")));
+			schema.setMinLength(ModelBinder.integer(oas2Parameter.get("minLength")));
 			schema.setPattern((String) oas2Parameter.get("pattern"));
-			schema.setMaxItems((Integer) oas2Parameter.get("maxItems"));
-			schema.setMinItems((Integer) oas2Parameter.get("minItems"));
+			schema.setMaxItems(ModelBinder.integer(oas2Parameter.get("maxItems")));
+			schema.setMinItems(ModelBinder.integer(oas2Parameter.get("minItems")));
 			schema.setUniqueItems((Boolean) oas2Parameter.get("uniqueItems"));
-			schema.setEnum((List) oas2Parameter.get("enum"));
+			schema.setEnum(copyOf((List) oas2Parameter.get("enum")));
 			schema.setDefault(oas2Parameter.get("default"));
 		}
 
 		return schema;
 	}
 
-	private SecurityScheme convertSecurityScheme(JSON oas2SecurityScheme) {
+	SecurityScheme convertSecurityScheme(ConversionContext context, JSON oas2SecurityScheme) {
 		SecurityScheme securityScheme = new SecurityScheme();
 
 		if(oas2SecurityScheme.get("$ref") != null) {
-			securityScheme.$ref(convertRef((String)oas2SecurityScheme.get("$ref")));
+			securityScheme.$ref(context.convertRef((String)oas2SecurityScheme.get("$ref")));
 		}
 		else {
 			String type = (String)oas2SecurityScheme.get("type");
@@ -505,7 +737,7 @@ public class OAS3Converter {
 				securityScheme.setFlows(new OAuthFlows());
 				Scopes scopes = null;
 				if(oas2SecurityScheme.get("scopes") != null) {
-					scopes = ((JSON)oas2SecurityScheme.get("scopes")).convert(Scopes.class);
+					scopes = ModelBinder.scopes((JSON)oas2SecurityScheme.get("scopes"));
 				}
 				String authorizationUrl = (String)oas2SecurityScheme.get("authorizationUrl");
 				String tokenUrl = (String)oas2SecurityScheme.get("tokenUrl");
@@ -542,25 +774,4 @@ public class OAS3Converter {
 		return securityScheme;
 	}
 
-	private String convertRef(String ref) {
-		if(ref == null) {
-			return null;
-		}
-
-		if(ref.startsWith("#/definitions")) {
-			return ref.replace("#/definitions", "#/components/schemas");
-		}
-		if(ref.startsWith("#/responses")) {
-			return ref.replace("#/responses", "#/components/responses");
-		}
-		if(ref.startsWith("#/parameters")) {
-			return ref.replace("#/parameters", "#/components/parameters");
-		}
-		if(ref.startsWith("#/securityDefinitions")) {
-			return ref.replace("#/securityDefinitions", "#/components/securitySchemes");
-		}
-		// TODO: check another $ref
-		return ref;
-	}
-
 }
@@ -0,0 +1,19 @@
+package org.zerofour.swagger2.converter.oas3;
+
+/**
+ * A document over one of the {@link OAS3Limits} of the conversion. Nothing of the conversion is kept.
+ */
+public class OAS3LimitExceededException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	private final OAS3Limits.Limit limit;
+
+	public OAS3LimitExceededException(OAS3Limits.Limit limit, String message) {
+		super(message);
+		this.limit = limit;
+	}
+
+	public OAS3Limits.Limit getLimit() {
+		return limit;
+	}
+}
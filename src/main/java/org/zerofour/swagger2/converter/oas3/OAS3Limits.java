@@ -0,0 +1,87 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import java.util.Locale;
+
+/**
+ * Bounds on the documents converted, so one pathological document can not exhaust the stack, the heap
+ * or the CPU. Every limit is checked while converting and 0 means unlimited.
+ * A conversion over a limit throws {@link OAS3LimitExceededException}.
+ */
+public final class OAS3Limits {
+	public static final OAS3Limits NONE = new OAS3Limits(0, 0, 0, 0);
+
+	// levels of the document around its outermost schemas, as in paths./orders.get.parameters[0].schema,
+	// and the containers in a schema, as its enum
+	private static final int DOCUMENT_NESTING = 8;
+
+	public enum Limit {
+		/** characters of the Swagger 2.0 JSON */
+		DOCUMENT_LENGTH,
+		/** operations of all paths */
+		OPERATIONS,
+		/** schemas nested in a schema, through items, properties and additionalProperties, or the JSON nested too deep */
+		SCHEMA_DEPTH,
+		/** milliseconds from the start of the conversion */
+		CONVERSION_TIME;
+
+		/**
+		 * The name of the limit in metrics and logs, for example "schema_depth".
+		 */
+		public String reason() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private final long maxDocumentLength;
+	private final int maxOperations;
+	private final int maxSchemaDepth;
+	private final long maxConversionMillis;
+
+	public OAS3Limits(long maxDocumentLength, int maxOperations, int maxSchemaDepth, long maxConversionMillis) {
+		this.maxDocumentLength = maxDocumentLength;
+		this.maxOperations = maxOperations;
+		this.maxSchemaDepth = maxSchemaDepth;
+		this.maxConversionMillis = maxConversionMillis;
+	}
+
+	/**
+	 * Checked before parsing, when the length is known; it is not for a springfox Swagger model.
+	 */
+	public void checkDocumentLength(long length) {
+		if(maxDocumentLength > 0 && length > maxDocumentLength) {
+			throw new OAS3LimitExceededException(Limit.DOCUMENT_LENGTH,
+				"document of " + length + " characters, the limit is " + maxDocumentLength);
+		}
+	}
+
+	public long getMaxDocumentLength() {
+		return maxDocumentLength;
+	}
+
+	public int getMaxOperations() {
+		return maxOperations;
+	}
+
+	public int getMaxSchemaDepth() {
+		return maxSchemaDepth;
+	}
+
+	/**
+	 * How deep the objects and arrays of the Swagger 2.0 JSON may nest, checked while parsing so nothing
+	 * recurses through a document nested deeper: two levels per schema, as a property is nested in
+	 * "properties", and the levels of the document around the schemas. 0 if the schema depth is unlimited.
+	 */
+	public int getMaxNestingDepth() {
+		return (maxSchemaDepth > 0) ? 2 * maxSchemaDepth + DOCUMENT_NESTING : 0;
+	}
+
+	public long getMaxConversionMillis() {
+		return maxConversionMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "OAS3Limits{maxDocumentLength=" + maxDocumentLength + ", maxOperations=" + maxOperations
+			+ ", maxSchemaDepth=" + maxSchemaDepth + ", maxConversionMillis=" + maxConversionMillis + "}";
+	}
+}
@@ -0,0 +1,141 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Selects the operations of a document by tag and/or path prefix, for example "?tag=billing" or
+ * "?pathPrefix=/orders". A filtered document has the selected "paths" and only the "definitions",
+ * "parameters", "responses", "securityDefinitions" and "tags" they use.
+ */
+public final class OAS3PathFilter {
+	private static final String[] OPERATIONS = { "get", "put", "post", "delete", "options", "head", "patch" };
+
+	private final String tag;
+	private final String pathPrefix;
+	private final int hash;
+
+	public OAS3PathFilter(String tag, String pathPrefix) {
+		this.tag = tag;
+		this.pathPrefix = pathPrefix;
+		this.hash = Objects.hash(tag, pathPrefix);
+	}
+
+	/**
+	 * A filter for the tag and path prefix, either of which may be null, or null if both are empty.
+	 */
+	public static OAS3PathFilter of(String tag, String pathPrefix) {
+		tag = (tag != null && !tag.isEmpty()) ? tag : null;
+		pathPrefix = (pathPrefix != null && !pathPrefix.isEmpty()) ? pathPrefix : null;
+		return (tag != null || pathPrefix != null) ? new OAS3PathFilter(tag, pathPrefix) : null;
+	}
+
+	public String getTag() {
+		return tag;
+	}
+
+	public String getPathPrefix() {
+		return pathPrefix;
+	}
+
+	/**
+	 * Whether the path starts with the path prefix, at a segment boundary: "/orders" matches
+	 * "/orders" and "/orders/{id}" but not "/ordersArchive".
+	 */
+	public boolean matchesPath(String path) {
+		if(pathPrefix == null || path.equals(pathPrefix)) {
+			return true;
+		}
+		return path.startsWith(pathPrefix.endsWith("/") ? pathPrefix : pathPrefix + "/");
+	}
+
+	// a shallow copy of the Swagger 2.0 document with the selected paths and what they use
+	JSON apply(JSON oas2) {
+		JSON filtered = new JSON();
+		filtered.putAll(oas2);
+
+		JSON paths = new JSON();
+		Set<Object> tags = new HashSet<>();
+		if(oas2.get("paths") != null) {
+			for(Map.Entry<String,Object> entry: ((JSON)oas2.get("paths")).entrySet()) {
+				if(!matchesPath(entry.getKey())) {
+					continue;
+				}
+				JSON pathItem = selectOperations((JSON)entry.getValue(), tags);
+				if(pathItem != null) {
+					paths.put(entry.getKey(), pathItem);
+				}
+			}
+		}
+		filtered.put("paths", paths);
+
+		if(oas2.get("tags") != null) {
+			List<Object> usedTags = new ArrayList<>();
+			for(Object oas2Tag: (List<?>)oas2.get("tags")) {
+				if(tags.contains(((JSON)oas2Tag).get("name"))) {
+					usedTags.add(oas2Tag);
+				}
+			}
+			filtered.put("tags", usedTags);
+		}
+		return References.retainReachable(filtered);
+	}
+
+	// the path item with the operations carrying the tag, null if it has none; collects the tags of the kept operations
+	private JSON selectOperations(JSON pathItem, Set<Object> tags) {
+		JSON selected = new JSON();
+		boolean hasOperation = false;
+		for(Map.Entry<String,Object> entry: pathItem.entrySet()) {
+			if(!isOperation(entry.getKey())) {
+				selected.put(entry.getKey(), entry.getValue());
+				continue;
+			}
+			Collection<?> operationTags = (Collection<?>)((JSON)entry.getValue()).get("tags");
+			if(tag != null && (operationTags == null || !operationTags.contains(tag))) {
+				continue;
+			}
+			if(operationTags != null) {
+				tags.addAll(operationTags);
+			}
+			selected.put(entry.getKey(), entry.getValue());
+			hasOperation = true;
+		}
+		return hasOperation ? selected : null;
+	}
+
+	private static boolean isOperation(String name) {
+		for(String operation: OPERATIONS) {
+			if(operation.equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) {
+			return true;
+		}
+		if(!(o instanceof OAS3PathFilter)) {
+			return false;
+		}
+		OAS3PathFilter other = (OAS3PathFilter)o;
+		return Objects.equals(tag, other.tag) && Objects.equals(pathPrefix, other.pathPrefix);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return "OAS3PathFilter{tag=" + tag + ", pathPrefix=" + pathPrefix + "}";
+	}
+}
@@ -0,0 +1,335 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Converts a Swagger 2.0 document to OAS3 token by token.
+ *
+ * Path items are read, converted and written one at a time. Only the top level sections that
+ * end up under "components" are held back until the end of the document, and "definitions" is
+ * kept as a compact token buffer and converted one schema at a time when it is replayed.
+ */
+public class OAS3StreamingConverter {
+
+	private final OAS3Converter oas3Converter;
+
+	public OAS3StreamingConverter() {
+		this(new OAS3Converter());
+	}
+
+	public OAS3StreamingConverter(OAS3Converter oas3Converter) {
+		this.oas3Converter = oas3Converter;
+	}
+
+	public boolean convertOpenAPI(InputStream in, OutputStream out) throws IOException {
+		try(JsonParser parser = JSON.createParser(in);
+			JsonGenerator generator = JSON.createGenerator(out)) {
+			return convertOpenAPI(parser, generator);
+		}
+	}
+
+	/**
+	 * Returns false without writing anything if the input is not a Swagger 2.0 document.
+	 */
+	public boolean convertOpenAPI(JsonParser parser, JsonGenerator generator) throws IOException {
+		return convertOpenAPI(parser, generator, null);
+	}
+
+	/**
+	 * Reuses the path items and schemas of the last conversion with the same state whose source did not change,
+	 * see {@link OAS3Converter#convertOpenAPI(JSON, OAS3ConversionState)}.
+	 */
+	public boolean convertOpenAPI(JsonParser parser, JsonGenerator generator, OAS3ConversionState state) throws IOException {
+		return convertOpenAPI(parser, generator, state, new OAS3ConversionStats());
+	}
+
+	/**
+	 * As {@link #convertOpenAPI(JsonParser, JsonGenerator, OAS3ConversionState)}, counting the conversion in stats.
+	 */
+	public boolean convertOpenAPI(JsonParser parser, JsonGenerator generator, OAS3ConversionState state,
+	                              OAS3ConversionStats stats) throws IOException {
+		if(parser.nextToken() != JsonToken.START_OBJECT) {
+			return false;
+		}
+
+		// top level fields in front of "swagger" are held until the version is known
+		TokenBuffer leading = new TokenBuffer(parser);
+		leading.writeStartObject();
+		boolean swagger2 = false;
+		while(parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			if(field.equals("swagger")) {
+				swagger2 = "2.0".equals(parser.getValueAsString());
+				break;
+			}
+			copyStructure(parser, leading);
+		}
+		leading.writeEndObject();
+		if(!swagger2) {
+			return false;
+		}
+
+		Document document = new Document(generator, oas3Converter.newContext(state, stats));
+		generator.writeStartObject();
+		generator.writeStringField("openapi", new OpenAPI().getOpenapi());
+
+		JsonParser leadingParser = leading.asParser(parser.getCodec());
+		leadingParser.nextToken();
+		while(leadingParser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = leadingParser.getCurrentName();
+			leadingParser.nextToken();
+			convertField(field, leadingParser, document);
+		}
+		while(parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			convertField(field, parser, document);
+		}
+
+		if(!document.serversWritten) {
+			writeField(generator, "servers", oas3Converter.convertServers(null));
+		}
+		writeComponents(document);
+		generator.writeEndObject();
+		checkRefTargets(document);
+		generator.flush();
+		if(state != null) {
+			state.commit(document.context.getGeneration());
+		}
+		return true;
+	}
+
+	private void convertField(String field, JsonParser parser, Document document) throws IOException {
+		JsonGenerator generator = document.generator;
+		switch(field) {
+			case "info":
+				if(parser.currentToken() == JsonToken.START_OBJECT) {
+					writeField(generator, "info", oas3Converter.convertInfo(JSON.readValue(parser, maxNestingDepth())));
+				}
+				break;
+			case "basePath":
+				writeField(generator, "servers", oas3Converter.convertServers(parser.getValueAsString()));
+				document.serversWritten = true;
+				break;
+			case "paths":
+				convertPaths(parser, document);
+				break;
+			case "security":
+				convertArray(parser, generator, "security", oas3Converter::convertSecurityRequirement);
+				break;
+			case "tags":
+				convertArray(parser, generator, "tags", oas3Converter::convertTag);
+				break;
+			case "externalDocs":
+				if(parser.currentToken() == JsonToken.START_OBJECT) {
+					writeField(generator, "externalDocs", oas3Converter.convertExternalDocs(JSON.readValue(parser, maxNestingDepth())));
+				}
+				break;
+			// reordered under "components"
+			case "definitions":
+				document.definitions = new TokenBuffer(parser);
+				copyStructure(parser, document.definitions);
+				break;
+			case "produces":
+				document.produces = (List<String>)(List<?>)JSON.readList(parser, maxNestingDepth());
+				break;
+			case "responses":
+				document.responses = JSON.readValue(parser, maxNestingDepth());
+				break;
+			case "parameters":
+				document.parameters = JSON.readValue(parser, maxNestingDepth());
+				break;
+			case "securityDefinitions":
+				document.securityDefinitions = JSON.readValue(parser, maxNestingDepth());
+				break;
+			default:
+				parser.skipChildren();
+		}
+	}
+
+	// writes the converted objects of an array field, and nothing for an empty array or any other value, as the
+	// tree converter does; the value is read to its end either way
+	private void convertArray(JsonParser parser, JsonGenerator generator, String field,
+	                          Function<JSON,Object> convert) throws IOException {
+		if(parser.currentToken() != JsonToken.START_ARRAY) {
+			parser.skipChildren();
+			return;
+		}
+		boolean written = false;
+		JsonToken token;
+		while((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+			if(token != JsonToken.START_OBJECT) {
+				parser.skipChildren();
+				continue;
+			}
+			if(!written) {
+				generator.writeArrayFieldStart(field);
+				written = true;
+			}
+			JSON.writeValue(generator, convert.apply(JSON.readValue(parser, maxNestingDepth())));
+		}
+		if(written) {
+			generator.writeEndArray();
+		}
+	}
+
+	private int maxNestingDepth() {
+		return oas3Converter.getLimits().getMaxNestingDepth();
+	}
+
+	// copies the value at the current token event by event, as copyCurrentStructure recurses into nested values
+	private void copyStructure(JsonParser parser, TokenBuffer buffer) throws IOException {
+		int maxDepth = maxNestingDepth();
+		int depth = 0;
+		JsonToken token = parser.currentToken();
+		while(token != null) {
+			if(token.isStructStart()) {
+				depth++;
+				if(maxDepth > 0 && depth > maxDepth) {
+					throw new OAS3LimitExceededException(OAS3Limits.Limit.SCHEMA_DEPTH,
+						"JSON nested deeper than " + maxDepth);
+				}
+			}
+			else if(token.isStructEnd()) {
+				depth--;
+			}
+			buffer.copyCurrentEvent(parser);
+			if(depth == 0) {
+				break;
+			}
+			token = parser.nextToken();
+		}
+	}
+
+	private void convertPaths(JsonParser parser, Document document) throws IOException {
+		JsonGenerator generator = document.generator;
+		generator.writeObjectFieldStart("paths");
+		if(parser.currentToken() == JsonToken.START_OBJECT) {
+			while(parser.nextToken() == JsonToken.FIELD_NAME) {
+				String path = parser.getCurrentName();
+				parser.nextToken();
+				PathItem pathItem = oas3Converter.convertPathItem(document.context, path, JSON.readValue(parser, maxNestingDepth()));
+				if(document.context.getGeneration() != null) {
+					generator.writeFieldName(path);
+					generator.writeRawValue(document.context.getGeneration().pathItemFragment(path));
+				}
+				else {
+					writeField(generator, path, pathItem);
+				}
+			}
+		}
+		generator.writeEndObject();
+	}
+
+	private void writeComponents(Document document) throws IOException {
+		JsonGenerator generator = document.generator;
+		generator.writeObjectFieldStart("components");
+		// schemas
+		if(document.definitions != null) {
+			JsonParser parser = document.definitions.asParser();
+			if(parser.nextToken() == JsonToken.START_OBJECT) {
+				generator.writeObjectFieldStart("schemas");
+				while(parser.nextToken() == JsonToken.FIELD_NAME) {
+					String name = parser.getCurrentName();
+					document.definitionNames.add(name);
+					parser.nextToken();
+					Schema schema = oas3Converter.convertDefinition(document.context, name, JSON.readValue(parser, maxNestingDepth()));
+					if(document.context.getGeneration() != null) {
+						generator.writeFieldName(name);
+						generator.writeRawValue(document.context.getGeneration().schemaFragment(name));
+					}
+					else {
+						writeField(generator, name, schema);
+					}
+				}
+				generator.writeEndObject();
+			}
+			document.definitions = null;
+		}
+		// responses
+		if(document.responses != null) {
+			generator.writeObjectFieldStart("responses");
+			for(Map.Entry<String,Object> e: document.responses.entrySet()) {
+				writeField(generator, e.getKey(), oas3Converter.convertResponse(document.context, document.produces, (JSON)e.getValue()));
+			}
+			generator.writeEndObject();
+		}
+		// parameters
+		if(document.parameters != null) {
+			generator.writeObjectFieldStart("parameters");
+			for(Map.Entry<String,Object> e: document.parameters.entrySet()) {
+				Parameter parameter = oas3Converter.convertParameter(document.context, (JSON)e.getValue());
+				if(parameter != null) {
+					writeField(generator, e.getKey(), parameter);
+				}
+			}
+			generator.writeEndObject();
+		}
+		// securitySchemes
+		if(document.securityDefinitions != null) {
+			generator.writeObjectFieldStart("securitySchemes");
+			for(Map.Entry<String,Object> e: document.securityDefinitions.entrySet()) {
+				writeField(generator, e.getKey(), oas3Converter.convertSecurityScheme(document.context, (JSON)e.getValue()));
+			}
+			generator.writeEndObject();
+		}
+		generator.writeEndObject();
+	}
+
+	// the targets are only known once the whole document has been read
+	private void checkRefTargets(Document document) {
+		Map<String,Set<String>> sections = new HashMap<>();
+		sections.put("definitions", document.definitionNames);
+		if(document.responses != null) {
+			sections.put("responses", document.responses.keySet());
+		}
+		if(document.parameters != null) {
+			sections.put("parameters", document.parameters.keySet());
+		}
+		if(document.securityDefinitions != null) {
+			sections.put("securityDefinitions", document.securityDefinitions.keySet());
+		}
+		document.context.checkRefTargets(sections);
+		oas3Converter.warnDanglingRefs(document.context);
+	}
+
+	private void writeField(JsonGenerator generator, String name, Object value) throws IOException {
+		generator.writeFieldName(name);
+		JSON.writeValue(generator, value);
+	}
+
+	private static class Document {
+		private final JsonGenerator generator;
+		private final ConversionContext context;
+		private boolean serversWritten = false;
+		private TokenBuffer definitions;
+		private final Set<String> definitionNames = new HashSet<>();
+		private List<String> produces;
+		private JSON responses;
+		private JSON parameters;
+		private JSON securityDefinitions;
+
+		private Document(JsonGenerator generator, ConversionContext context) {
+			this.generator = generator;
+			this.context = context;
+		}
+	}
+}
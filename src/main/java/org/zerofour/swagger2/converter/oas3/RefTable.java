@@ -0,0 +1,103 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rewrites the $ref values of a conversion to their OAS3 form, once per distinct reference, so a reference
+ * repeated across the document costs a hash lookup and every occurrence shares one String.
+ * A table created with the Swagger 2.0 document also records the local references whose target is missing.
+ */
+final class RefTable {
+	// Swagger 2.0 prefix, OAS3 prefix, Swagger 2.0 section
+	private static final String[][] PREFIXES = {
+		{ "#/definitions", "#/components/schemas", "definitions" },
+		{ "#/responses", "#/components/responses", "responses" },
+		{ "#/parameters", "#/components/parameters", "parameters" },
+		{ "#/securityDefinitions", "#/components/securitySchemes", "securityDefinitions" }
+	};
+
+	private final Map<String,String> refs = new ConcurrentHashMap<>();
+	private final Set<String> danglingRefs = ConcurrentHashMap.newKeySet();
+	private final JSON oas2;
+
+	/**
+	 * A table that does not check the targets, for a document that is not available as a whole.
+	 */
+	RefTable() {
+		this(null);
+	}
+
+	RefTable(JSON oas2) {
+		this.oas2 = oas2;
+	}
+
+	String convert(String ref) {
+		if(ref == null) {
+			return null;
+		}
+		String converted = refs.get(ref);
+		if(converted == null) {
+			converted = rewrite(ref);
+			String previous = refs.putIfAbsent(ref, converted);
+			if(previous != null) {
+				return previous;
+			}
+		}
+		return converted;
+	}
+
+	/**
+	 * The local references seen so far whose target is not in the document, sorted.
+	 */
+	Set<String> getDanglingRefs() {
+		return new TreeSet<>(danglingRefs);
+	}
+
+	/**
+	 * Records the references seen so far whose target is not among the entry names of its section, for a table
+	 * created without the document, once every section of it has been read.
+	 */
+	void checkTargets(Map<String,Set<String>> sections) {
+		for(String ref: refs.keySet()) {
+			String[] prefix = prefixOf(ref);
+			if(prefix != null && !resolves(prefix, ref, sections.get(prefix[2]))) {
+				danglingRefs.add(ref);
+			}
+		}
+	}
+
+	private String rewrite(String ref) {
+		String[] prefix = prefixOf(ref);
+		if(prefix == null) {
+			// TODO: check another $ref
+			return ref;
+		}
+		if(oas2 != null && !resolves(prefix, ref, entryNames(oas2, prefix[2]))) {
+			danglingRefs.add(ref);
+		}
+		return prefix[1] + ref.substring(prefix[0].length());
+	}
+
+	private static String[] prefixOf(String ref) {
+		for(String[] prefix: PREFIXES) {
+			if(ref.startsWith(prefix[0])) {
+				return prefix;
+			}
+		}
+		return null;
+	}
+
+	private static Set<String> entryNames(JSON oas2, String section) {
+		JSON entries = (JSON)oas2.get(section);
+		return (entries != null) ? entries.keySet() : null;
+	}
+
+	// whether the entry the reference names, if any, is one of the names of its section
+	private static boolean resolves(String[] prefix, String ref, Set<String> names) {
+		String name = References.entryName(prefix[0], ref);
+		return names != null && name != null && names.contains(name);
+	}
+}
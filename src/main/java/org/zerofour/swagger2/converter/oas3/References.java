@@ -0,0 +1,181 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The "definitions", "parameters" and "responses" of a Swagger 2.0 document reachable through $ref,
+ * and the "securityDefinitions" its security requirements name.
+ */
+final class References {
+	private static final String[] SECTIONS = { "definitions", "parameters", "responses" };
+
+	private References() {
+	}
+
+	/**
+	 * A shallow copy of the document whose "definitions", "parameters" and "responses" keep only
+	 * the entries reachable from its "paths", and whose "securityDefinitions" keep only the schemes
+	 * named by its top level or operation "security", in their original order.
+	 */
+	static JSON retainReachable(JSON oas2) {
+		Set<String> reachable = reachable(oas2);
+
+		JSON retained = new JSON();
+		retained.putAll(oas2);
+		for(String section: SECTIONS) {
+			Set<String> names = new HashSet<>();
+			for(String ref: reachable) {
+				String name = entryName("#/" + section, ref);
+				if(name != null) {
+					names.add(name);
+				}
+			}
+			retain(retained, section, names);
+		}
+		retain(retained, "securityDefinitions", securityNames(oas2));
+		return retained;
+	}
+
+	private static void retain(JSON retained, String section, Set<String> names) {
+		JSON entries = (JSON)retained.get(section);
+		if(entries == null) {
+			return;
+		}
+		JSON kept = new JSON();
+		for(Map.Entry<String,Object> entry: entries.entrySet()) {
+			if(names.contains(entry.getKey())) {
+				kept.put(entry.getKey(), entry.getValue());
+			}
+		}
+		if(kept.isEmpty()) {
+			retained.remove(section);
+		}
+		else {
+			retained.put(section, kept);
+		}
+	}
+
+	// the schemes of the top level and operation security requirements
+	private static Set<String> securityNames(JSON oas2) {
+		Set<String> names = new HashSet<>();
+		addSecurityNames(names, oas2.get("security"));
+		if(oas2.get("paths") instanceof JSON) {
+			for(Object pathItem: ((JSON)oas2.get("paths")).values()) {
+				if(!(pathItem instanceof JSON)) {
+					continue;
+				}
+				for(Object operation: ((JSON)pathItem).values()) {
+					if(operation instanceof JSON) {
+						addSecurityNames(names, ((JSON)operation).get("security"));
+					}
+				}
+			}
+		}
+		return names;
+	}
+
+	private static void addSecurityNames(Set<String> names, Object security) {
+		if(!(security instanceof List)) {
+			return;
+		}
+		for(Object requirement: (List<?>)security) {
+			if(requirement instanceof JSON) {
+				names.addAll(((JSON)requirement).keySet());
+			}
+		}
+	}
+
+	// the $ref values reachable from "paths", following references into the referenced entries
+	static Set<String> reachable(JSON oas2) {
+		Set<String> reachable = new HashSet<>();
+		Deque<Object> pending = new ArrayDeque<>();
+		if(oas2.get("paths") != null) {
+			pending.push(oas2.get("paths"));
+		}
+		while(!pending.isEmpty()) {
+			Object value = pending.pop();
+			if(value instanceof List) {
+				for(Object item: (List<?>)value) {
+					push(pending, item);
+				}
+				continue;
+			}
+			for(Map.Entry<String,Object> entry: ((JSON)value).entrySet()) {
+				if(entry.getKey().equals("$ref") && entry.getValue() instanceof String) {
+					String ref = (String)entry.getValue();
+					if(reachable.add(ref)) {
+						push(pending, resolve(oas2, ref));
+					}
+				}
+				else {
+					push(pending, entry.getValue());
+				}
+			}
+		}
+		return reachable;
+	}
+
+	// the $ref values of a part of the document, without following them
+	static Set<String> refs(Object value) {
+		Set<String> refs = new HashSet<>();
+		Deque<Object> pending = new ArrayDeque<>();
+		push(pending, value);
+		while(!pending.isEmpty()) {
+			Object next = pending.pop();
+			if(next instanceof List) {
+				for(Object item: (List<?>)next) {
+					push(pending, item);
+				}
+				continue;
+			}
+			for(Map.Entry<String,Object> entry: ((JSON)next).entrySet()) {
+				if(entry.getKey().equals("$ref") && entry.getValue() instanceof String) {
+					refs.add((String)entry.getValue());
+				}
+				else {
+					push(pending, entry.getValue());
+				}
+			}
+		}
+		return refs;
+	}
+
+	private static void push(Deque<Object> pending, Object value) {
+		if(value instanceof JSON || value instanceof List) {
+			pending.push(value);
+		}
+	}
+
+	/**
+	 * The name of the entry a local reference such as "#/definitions/Order" points to in the section with
+	 * the given prefix, such as "#/definitions", with the JSON pointer escapes ~1 and ~0 undone.
+	 * Null if the reference does not point into the section.
+	 */
+	static String entryName(String prefix, String ref) {
+		if(!ref.startsWith(prefix) || ref.length() <= prefix.length() || ref.charAt(prefix.length()) != '/') {
+			return null;
+		}
+		String name = ref.substring(prefix.length() + 1);
+		if(name.indexOf('~') >= 0) {
+			name = name.replace("~1", "/").replace("~0", "~");
+		}
+		return name;
+	}
+
+	// the entry a local reference points to, null for any other reference
+	private static Object resolve(JSON oas2, String ref) {
+		for(String section: SECTIONS) {
+			String name = entryName("#/" + section, ref);
+			if(name != null) {
+				JSON entries = (JSON)oas2.get(section);
+				return (entries != null) ? entries.get(name) : null;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,62 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes OAS3 documents as YAML, with the same NON_NULL and enum settings as {@link JSON}.
+ * Requires jackson-dataformat-yaml, which is only loaded when this class is.
+ */
+public final class YAML {
+	private static final ObjectMapper om;
+
+	static {
+		// the YAML flavour of swagger-core: no document marker, quotes only where needed
+		YAMLFactory factory = new YAMLFactory()
+			.disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+			.enable(YAMLGenerator.Feature.MINIMIZE_QUOTES)
+			.disable(YAMLGenerator.Feature.SPLIT_LINES)
+			.enable(YAMLGenerator.Feature.ALWAYS_QUOTE_NUMBERS_AS_STRINGS);
+		om = new ObjectMapper(factory);
+		om.enable(SerializationFeature.WRITE_ENUMS_USING_TO_STRING);
+		om.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+	}
+
+	private YAML() {
+	}
+
+	public static byte[] writeValueAsBytes(Object obj) throws IOException {
+		return om.writeValueAsBytes(obj);
+	}
+
+	/**
+	 * The YAML of a JSON document, copied token by token without building a tree. Decimals are copied
+	 * as BigDecimal, so the result is the same as {@link #writeValueAsBytes(Object)} of the model.
+	 */
+	public static byte[] fromJSON(byte[] json) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+		try(JsonParser parser = JSON.createParser(new ByteArrayInputStream(json));
+			JsonGenerator generator = om.getFactory().createGenerator(out)) {
+			JsonToken token;
+			while((token = parser.nextToken()) != null) {
+				if(token == JsonToken.VALUE_NUMBER_FLOAT) {
+					generator.writeNumber(parser.getDecimalValue());
+				}
+				else {
+					generator.copyCurrentEvent(parser);
+				}
+			}
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,154 @@
+package org.zerofour.swagger2.converter.prewarm;
+
+import io.swagger.models.Swagger;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.swagger2.mappers.ServiceModelToSwagger2Mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Converts every Docket group on a background thread once the application context is refreshed,
+ * so the first request for a group is served from the cache of the {@link OAS3DocumentService}.
+ *
+ * Documents are converted the way Swagger2Controller builds them for a request without forwarded
+ * headers, that is with the basePath "/". Readiness checks can poll {@link #isComplete()} or wait on
+ * {@link #getCompletion()}.
+ */
+public class OAS3Prewarmer implements ApplicationListener<ContextRefreshedEvent>, ApplicationContextAware, DisposableBean {
+	private static final Log logger = LogFactory.getLog(OAS3Prewarmer.class);
+
+	private static final String DEFAULT_BASE_PATH = "/";
+
+	private final OAS3DocumentService service;
+	private final DocumentationCache documentationCache;
+	private final ServiceModelToSwagger2Mapper mapper;
+
+	private ApplicationContext applicationContext;
+	private volatile ExecutorService executor;
+	private final AtomicBoolean started = new AtomicBoolean(false);
+	private final CompletableFuture<Void> completion = new CompletableFuture<>();
+	private volatile int totalGroups = 0;
+	private final AtomicInteger convertedGroups = new AtomicInteger();
+	private final AtomicInteger failedGroups = new AtomicInteger();
+
+	public OAS3Prewarmer(OAS3DocumentService service,
+	                     DocumentationCache documentationCache,
+	                     ServiceModelToSwagger2Mapper mapper) {
+		this.service = service;
+		this.documentationCache = documentationCache;
+		this.mapper = mapper;
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext) {
+		this.applicationContext = applicationContext;
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		// ignore refreshes of child contexts and any refresh after the first one
+		if(event.getApplicationContext() != applicationContext
+			|| !started.compareAndSet(false, true)) {
+			return;
+		}
+
+		executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("oas3-prewarm-"));
+		executor.execute(this::prewarm);
+	}
+
+	private void prewarm() {
+		try {
+			List<Map.Entry<String,Documentation>> groups = new ArrayList<>(documentationCache.all().entrySet());
+			totalGroups = groups.size();
+			logger.info("Converting " + totalGroups + " documentation group(s) to OAS3");
+
+			for(Map.Entry<String,Documentation> group: groups) {
+				try {
+					service.convert(new OAS3CacheKey(group.getKey(), DEFAULT_BASE_PATH), () -> {
+						Swagger swagger = mapper.mapDocumentation(group.getValue());
+						if(swagger.getBasePath() == null || swagger.getBasePath().isEmpty()) {
+							swagger.basePath(DEFAULT_BASE_PATH);
+						}
+						return swagger;
+					});
+					convertedGroups.incrementAndGet();
+				} catch (RuntimeException e) {
+					failedGroups.incrementAndGet();
+					logger.warn("Failed to convert documentation group '" + group.getKey() + "'", e);
+				}
+				if(logger.isDebugEnabled()) {
+					logger.debug("Converted " + (convertedGroups.get() + failedGroups.get()) + "/" + totalGroups + " group(s)");
+				}
+			}
+
+			logger.info("Converted " + convertedGroups.get() + "/" + totalGroups + " documentation group(s) to OAS3");
+			completion.complete(null);
+		} catch (RuntimeException e) {
+			completion.completeExceptionally(e);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	public boolean isComplete() {
+		return completion.isDone();
+	}
+
+	/**
+	 * Completes when every group was attempted, even if some of them failed to convert.
+	 */
+	public CompletableFuture<Void> getCompletion() {
+		return completion;
+	}
+
+	public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		try {
+			completion.get(timeout, unit);
+			return true;
+		} catch (ExecutionException e) {
+			return true;
+		} catch (TimeoutException e) {
+			return false;
+		}
+	}
+
+	public int getTotalGroups() {
+		return totalGroups;
+	}
+
+	public int getConvertedGroups() {
+		return convertedGroups.get();
+	}
+
+	public int getFailedGroups() {
+		return failedGroups.get();
+	}
+
+	@Override
+	public void destroy() {
+		if(executor != null) {
+			executor.shutdownNow();
+		}
+	}
+}
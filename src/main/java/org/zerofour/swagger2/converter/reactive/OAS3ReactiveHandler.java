@@ -0,0 +1,141 @@
+package org.zerofour.swagger2.converter.reactive;
+
+import io.swagger.models.Swagger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+import org.zerofour.swagger2.converter.oas3.OAS3PathFilter;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import reactor.core.publisher.Mono;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Serves the OAS3 document of a group on WebFlux, from the same {@link OAS3DocumentService} as Spring MVC.
+ *
+ * A cached document is written on the calling thread. Anything else, loading a generated document or
+ * converting the Swagger model of the {@link OAS3SwaggerProvider}, runs on the executor, never on an
+ * event loop, and concurrent requests for the same document wait for a single conversion of the service.
+ */
+public class OAS3ReactiveHandler implements HandlerFunction<ServerResponse> {
+	private static final String GROUP_PARAMETER = "group";
+	private static final String TAG_PARAMETER = "tag";
+	private static final String PATH_PREFIX_PARAMETER = "pathPrefix";
+
+	private final OAS3DocumentService service;
+	private final OAS3SwaggerProvider swaggerProvider;
+	private final Executor executor;
+
+	/**
+	 * @param swaggerProvider the models to convert, null to serve generated documents only
+	 */
+	public OAS3ReactiveHandler(OAS3DocumentService service, OAS3SwaggerProvider swaggerProvider, Executor executor) {
+		this.service = service;
+		this.swaggerProvider = swaggerProvider;
+		this.executor = executor;
+	}
+
+	@Override
+	public Mono<ServerResponse> handle(ServerRequest request) {
+		return document(cacheKey(request))
+			.flatMap(document -> write(document, request))
+			.switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+			.onErrorResume(RejectedExecutionException.class,
+				e -> ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+	}
+
+	/**
+	 * The document for the key, empty if there is none or it can not be converted.
+	 */
+	public Mono<OAS3Document> document(OAS3CacheKey key) {
+		return Mono.defer(() -> Mono.fromFuture(dependent(service.convertAsync(key, () -> swagger(key), executor))))
+			.onErrorMap(CompletionException.class, Throwable::getCause);
+	}
+
+	// the future of the service is shared with the other requests for the key: a request that is cancelled
+	// cancels a future completing with it, not the conversion
+	private static <T> CompletableFuture<T> dependent(CompletableFuture<T> shared) {
+		return shared.thenApply(Function.identity());
+	}
+
+	// the model of the provider may be shared, so the basePath of the request is set on a copy
+	private Swagger swagger(OAS3CacheKey key) {
+		Swagger swagger = (swaggerProvider != null) ? swaggerProvider.getSwagger(key.getGroup()) : null;
+		if(swagger != null && (swagger.getBasePath() == null || swagger.getBasePath().isEmpty())) {
+			return withBasePath(swagger, key.getBasePath());
+		}
+		return swagger;
+	}
+
+	private static Swagger withBasePath(Swagger swagger, String basePath) {
+		Swagger copy = new Swagger();
+		copy.setSwagger(swagger.getSwagger());
+		copy.setInfo(swagger.getInfo());
+		copy.setHost(swagger.getHost());
+		copy.setBasePath(basePath);
+		copy.setSchemes(swagger.getSchemes());
+		copy.setTags(swagger.getTags());
+		copy.setConsumes(swagger.getConsumes());
+		copy.setProduces(swagger.getProduces());
+		copy.setPaths(swagger.getPaths());
+		copy.setSecurityDefinitions(swagger.getSecurityDefinitions());
+		copy.setSecurity(swagger.getSecurity());
+		copy.setDefinitions(swagger.getDefinitions());
+		copy.setParameters(swagger.getParameters());
+		copy.setResponses(swagger.getResponses());
+		copy.setExternalDocs(swagger.getExternalDocs());
+		copy.setVendorExtensions(swagger.getVendorExtensions());
+		return copy;
+	}
+
+	private Mono<ServerResponse> write(OAS3Document document, ServerRequest request) {
+		HttpHeaders requestHeaders = request.headers().asHttpHeaders();
+		MediaType mediaType = service.selectMediaType(document, requestHeaders);
+		String vary = service.vary(document);
+		document = service.representation(document, mediaType);
+		String encoding = service.selectEncoding(document, requestHeaders);
+		String etag = document.getETag(encoding);
+
+		if(service.isNotModified(etag, requestHeaders)) {
+			ServerResponse.BodyBuilder response = ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag);
+			if(vary != null) {
+				response.header(HttpHeaders.VARY, vary);
+			}
+			return response.build();
+		}
+
+		ServerResponse.BodyBuilder response = ServerResponse.ok()
+			.eTag(etag)
+			.contentType(mediaType)
+			.contentLength(document.getContentLength(encoding));
+		if(vary != null) {
+			response.header(HttpHeaders.VARY, vary);
+		}
+		if(!encoding.equals(OAS3Document.IDENTITY)) {
+			response.header(HttpHeaders.CONTENT_ENCODING, encoding);
+		}
+		ByteBuffer body = document.getBuffer(encoding);
+		return response.body((message, context) ->
+			message.writeWith(Mono.fromSupplier(() -> message.bufferFactory().wrap(body.duplicate()))));
+	}
+
+	// the group and filter from the query, the context path as basePath; documents carry no host
+	private OAS3CacheKey cacheKey(ServerRequest request) {
+		String group = request.queryParam(GROUP_PARAMETER).orElse(Docket.DEFAULT_GROUP_NAME);
+		String basePath = request.exchange().getRequest().getPath().contextPath().value();
+		return new OAS3CacheKey(group, basePath.isEmpty() ? "/" : basePath,
+			OAS3PathFilter.of(request.queryParam(TAG_PARAMETER).orElse(null),
+				request.queryParam(PATH_PREFIX_PARAMETER).orElse(null)));
+	}
+}
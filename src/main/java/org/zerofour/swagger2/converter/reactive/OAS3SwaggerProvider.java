@@ -0,0 +1,15 @@
+package org.zerofour.swagger2.converter.reactive;
+
+import io.swagger.models.Swagger;
+
+/**
+ * The springfox Swagger model of a documentation group, for applications where springfox does not
+ * document the endpoints itself, as on WebFlux.
+ */
+@FunctionalInterface
+public interface OAS3SwaggerProvider {
+	/**
+	 * Returns the model of the group, or null if there is no such group. Called on a conversion thread.
+	 */
+	Swagger getSwagger(String group);
+}
@@ -0,0 +1,688 @@
+package org.zerofour.swagger2.converter.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.swagger.models.Swagger;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.ClassUtils;
+import org.zerofour.swagger2.converter.cache.OAS3Cache;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+import org.zerofour.swagger2.converter.cache.OAS3DocumentLoader;
+import org.zerofour.swagger2.converter.metrics.OAS3Metrics;
+import org.zerofour.swagger2.converter.oas3.JSON;
+import org.zerofour.swagger2.converter.oas3.OAS3ConversionState;
+import org.zerofour.swagger2.converter.oas3.OAS3ConversionStats;
+import org.zerofour.swagger2.converter.oas3.OAS3Converter;
+import org.zerofour.swagger2.converter.oas3.OAS3LimitExceededException;
+import org.zerofour.swagger2.converter.oas3.OAS3Limits;
+import org.zerofour.swagger2.converter.oas3.OAS3PathFilter;
+import org.zerofour.swagger2.converter.oas3.OAS3StreamingConverter;
+import org.zerofour.swagger2.converter.oas3.YAML;
+import springfox.documentation.spring.web.json.JacksonModuleRegistrar;
+import springfox.documentation.spring.web.json.Json;
+import springfox.documentation.swagger2.configuration.Swagger2JacksonModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The converted OAS3 documents of the Docket groups: converts them on a miss, once however many requests
+ * are waiting, caches them and picks the representation a request accepts. It does not depend on the web
+ * stack, so the Spring MVC {@link org.zerofour.swagger2.converter.advice.OAS3ConverterAdvice} and
+ * OAS3Controller as well as the WebFlux OAS3ReactiveHandler serve documents from the same service.
+ */
+public class OAS3DocumentService {
+	private static final Log logger = LogFactory.getLog(OAS3DocumentService.class);
+	private static final String YAML_FACTORY_CLASS = "com.fasterxml.jackson.dataformat.yaml.YAMLFactory";
+
+	public static final MediaType APPLICATION_YAML = MediaType.valueOf("application/yaml");
+	/** The OpenAPI media type, YAML unless it has the +json suffix */
+	public static final MediaType APPLICATION_OPENAPI = MediaType.valueOf("application/vnd.oai.openapi");
+	public static final MediaType APPLICATION_OPENAPI_JSON = MediaType.valueOf("application/vnd.oai.openapi+json");
+
+	private final OAS3Converter oas3Converter;
+	private OAS3StreamingConverter oas3StreamingConverter = null;
+	private String[] contentEncodings = { OAS3Document.GZIP, OAS3Document.DEFLATE };
+	private final OAS3Cache<OAS3Document> cache;
+	// filtered views, apart so views of any tag or path prefix a client asks for can not evict whole documents
+	private OAS3Cache<OAS3Document> filteredCache = new OAS3Cache<>(OAS3Cache.DEFAULT_FILTERED_MAX_SIZE);
+	private OAS3Metrics metrics = OAS3Metrics.NOOP;
+	private ObjectMapper swaggerMapper = swaggerMapper();
+	private Map<String,OAS3ConversionState> states = null;
+	private OAS3DocumentLoader documentLoader = null;
+	private boolean offHeap = false;
+	private boolean yaml = false;
+	// conversions in progress, so concurrent misses of a key wait for one conversion instead of each converting
+	private final Map<OAS3CacheKey,CompletableFuture<OAS3Document>> conversions = new ConcurrentHashMap<>();
+	// documents over a limit of the converter, answered unconverted until their group is invalidated
+	private final Map<OAS3CacheKey,OAS3Limits.Limit> breaches = new ConcurrentHashMap<>();
+	// incremented by invalidate, so a conversion started before does not keep what it converted:
+	// one for every group, and one per invalidated group
+	private final AtomicLong epoch = new AtomicLong();
+	private final Map<String,AtomicLong> groupEpochs = new ConcurrentHashMap<>();
+	private long conversionTimeout = 0;
+	private Executor conversionExecutor = null;
+
+	public OAS3DocumentService() {
+		this(new OAS3Cache<>());
+	}
+
+	public OAS3DocumentService(OAS3Cache<OAS3Document> cache) {
+		this(cache, new OAS3Converter());
+	}
+
+	public OAS3DocumentService(OAS3Cache<OAS3Document> cache, OAS3Converter oas3Converter) {
+		this.cache = cache;
+		this.oas3Converter = oas3Converter;
+	}
+
+	/**
+	 * Returns the converted document for the key, converting and caching the Swagger 2.0 body on a miss.
+	 * Returns null if the body can not be converted.
+	 */
+	public OAS3Document convert(OAS3CacheKey key, Json body) {
+		return convert(key, body, 0);
+	}
+
+	/**
+	 * As {@link #convert(OAS3CacheKey, Json)}, but returns null if the document is not converted within
+	 * timeout milliseconds, 0 to always wait. The conversion goes on and its result is cached for the next
+	 * requests. A timeout only applies when a conversion executor is set.
+	 */
+	public OAS3Document convert(OAS3CacheKey key, Json body, long timeout) {
+		return convert(key, () -> JSON.createParser(body.value()), body.value().length(), timeout);
+	}
+
+	/**
+	 * Returns the converted document for the key, converting and caching the springfox Swagger model on a miss.
+	 * The model is still serialized and read back, but into a TokenBuffer instead of the Swagger 2.0 JSON text:
+	 * the tree converter builds its JSON tree from the buffered tokens, the streaming one converts them as read.
+	 * This saves the String and the character encoding and number parsing, not the serialize/parse cycle.
+	 * Returns null if the supplier returns null or the model can not be converted.
+	 */
+	public OAS3Document convert(OAS3CacheKey key, Supplier<Swagger> swagger) {
+		return convert(key, swaggerSource(swagger), -1, 0);
+	}
+
+	/**
+	 * As {@link #convert(OAS3CacheKey, Supplier)} without blocking: a miss is converted on the executor.
+	 * The future is shared by every request for the key until it completes, and completes with null if
+	 * the document can not be converted, or exceptionally with a RejectedExecutionException if the executor
+	 * rejects the conversion.
+	 */
+	public CompletableFuture<OAS3Document> convertAsync(OAS3CacheKey key, Supplier<Swagger> swagger, Executor executor) {
+		return conversion(key, swaggerSource(swagger), -1, executor);
+	}
+
+	private Source swaggerSource(Supplier<Swagger> swagger) {
+		return () -> {
+			Swagger model = swagger.get();
+			if(model == null) {
+				return null;
+			}
+			TokenBuffer tokens = new TokenBuffer(swaggerMapper, false);
+			swaggerMapper.writeValue(tokens, model);
+			return tokens.asParser();
+		};
+	}
+
+	/**
+	 * Returns the cached document for the key, or null without converting anything.
+	 */
+	public OAS3Document getCached(OAS3CacheKey key) {
+		OAS3Document document = lookup(key);
+		if(document != null) {
+			metrics.recordCacheHit(key.getGroup());
+		}
+		return document;
+	}
+
+	private OAS3Document lookup(OAS3CacheKey key) {
+		return cacheFor(key).get(key);
+	}
+
+	/**
+	 * With a timeout the conversion runs on the conversion executor, and a request still waiting after the
+	 * timeout gets null while the conversion goes on.
+	 */
+	private OAS3Document convert(OAS3CacheKey key, Source source, int inputLength, long timeout) {
+		Executor executor = Runnable::run;
+		if(timeout > 0 && conversionExecutor != null) {
+			// a conversion the executor rejects runs on the request thread
+			executor = task -> {
+				try {
+					conversionExecutor.execute(task);
+				} catch (RejectedExecutionException e) {
+					task.run();
+				}
+			};
+		}
+		return await(key, conversion(key, source, inputLength, executor), timeout);
+	}
+
+	/**
+	 * A miss is converted once however many requests are waiting for it: the future of a conversion in progress
+	 * is returned to every request for the same key.
+	 */
+	private CompletableFuture<OAS3Document> conversion(OAS3CacheKey key, Source source, int inputLength, Executor executor) {
+		OAS3Document document = getCached(key);
+		if(document != null) {
+			return CompletableFuture.completedFuture(document);
+		}
+		OAS3Limits.Limit breach = breaches.get(key);
+		if(breach != null) {
+			metrics.recordFallback(key.getGroup(), breach.reason());
+			return CompletableFuture.completedFuture(null);
+		}
+
+		long started = epoch(key.getGroup());
+		CompletableFuture<OAS3Document> conversion = new CompletableFuture<>();
+		CompletableFuture<OAS3Document> inProgress = conversions.putIfAbsent(key, conversion);
+		if(inProgress != null) {
+			metrics.recordCoalesced(key.getGroup());
+			return inProgress;
+		}
+		// a conversion may have finished between the lookup and putIfAbsent
+		document = lookup(key);
+		if(document != null) {
+			conversions.remove(key, conversion);
+			conversion.complete(document);
+			metrics.recordCacheHit(key.getGroup());
+			return conversion;
+		}
+		metrics.recordCacheMiss(key.getGroup());
+
+		Runnable task = () -> {
+			try {
+				conversion.complete(convertMiss(key, source, inputLength, started));
+			} catch (RuntimeException | Error e) {
+				conversion.completeExceptionally(e);
+			} finally {
+				conversions.remove(key, conversion);
+			}
+		};
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			conversions.remove(key, conversion);
+			conversion.completeExceptionally(e);
+		}
+		return conversion;
+	}
+
+	private OAS3Document await(OAS3CacheKey key, CompletableFuture<OAS3Document> conversion, long timeout) {
+		try {
+			return (timeout > 0) ? conversion.get(timeout, TimeUnit.MILLISECONDS) : conversion.get();
+		} catch (TimeoutException e) {
+			metrics.recordFallback(key.getGroup(), "timeout");
+			logger.debug("Conversion of group '" + key.getGroup() + "' took longer than " + timeout + " ms");
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			// the failure was recorded by the request that converted
+			Throwable cause = e.getCause();
+			if(cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw (RuntimeException)cause;
+		}
+	}
+
+	private OAS3Document convertMiss(OAS3CacheKey key, Source source, int inputLength, long started) {
+		OAS3Document document = null;
+
+		// generated documents are never filtered
+		if(documentLoader != null && key.getFilter() == null) {
+			document = loadDocument(key.getGroup(), key.getBasePath());
+			if(document != null) {
+				store(key, document, started);
+				return document;
+			}
+		}
+
+		try {
+			if(inputLength >= 0) {
+				oas3Converter.getLimits().checkDocumentLength(inputLength);
+			}
+			// a filtered view converts a subset of the document, so it neither updates nor reuses the group's state
+			OAS3ConversionState state = (states != null && key.getFilter() == null)
+				? states.computeIfAbsent(key.getGroup(), group -> new OAS3ConversionState())
+				: null;
+			// the streaming converter can not know which definitions the paths use, so filtered views
+			// and pruned documents are always converted from the tree
+			boolean streaming = oas3StreamingConverter != null
+				&& key.getFilter() == null && !oas3Converter.isPruneComponents();
+			document = streaming
+				? convertStreaming(key.getGroup(), source, inputLength, state)
+				: convert(key.getGroup(), source, inputLength, state, key.getFilter());
+			if(state != null && logger.isDebugEnabled()) {
+				logger.debug("Converted group '" + key.getGroup() + "': "
+					+ state.getConvertedPaths() + " path(s) converted, " + state.getReusedPaths() + " reused, "
+					+ state.getConvertedSchemas() + " schema(s) converted, " + state.getReusedSchemas() + " reused");
+			}
+			if(document != null) {
+				store(key, document, started);
+			}
+		} catch (IOException e) {
+			metrics.recordFailure(key.getGroup());
+			logger.warn("Failed to convert documentation group '" + key.getGroup() + "' to OAS3", e);
+		} catch (OAS3LimitExceededException e) {
+			// the document does not change until the group is invalidated, but a slow conversion may be faster later;
+			// filtered views are not remembered, as a client can ask for any number of them
+			if(e.getLimit() != OAS3Limits.Limit.CONVERSION_TIME && key.getFilter() == null && epoch(key.getGroup()) == started) {
+				breaches.put(key, e.getLimit());
+			}
+			metrics.recordFallback(key.getGroup(), e.getLimit().reason());
+			logger.warn("Not converting documentation group '" + key.getGroup() + "' to OAS3: " + e.getMessage());
+		} catch (RuntimeException e) {
+			metrics.recordFailure(key.getGroup());
+			throw e;
+		}
+
+		return document;
+	}
+
+	// a conversion started before the last invalidate may have read the old documentation, so its document is
+	// returned to the requests that waited for it but not cached; checked again after the put, as invalidate
+	// may run in between
+	private void store(OAS3CacheKey key, OAS3Document document, long started) {
+		if(epoch(key.getGroup()) != started) {
+			return;
+		}
+		OAS3Cache<OAS3Document> cache = cacheFor(key);
+		cache.put(key, document);
+		if(epoch(key.getGroup()) != started) {
+			cache.remove(key);
+		}
+	}
+
+	private OAS3Cache<OAS3Document> cacheFor(OAS3CacheKey key) {
+		return (key.getFilter() != null) ? filteredCache : cache;
+	}
+
+	private OAS3Document convert(String group, Source source, int inputLength, OAS3ConversionState state, OAS3PathFilter filter) throws IOException {
+		long start = System.nanoTime();
+		JSON oas2;
+		try(JsonParser parser = source.open()) {
+			if(parser == null) {
+				return null;
+			}
+			oas2 = JSON.readValue(parser, oas3Converter.getLimits().getMaxNestingDepth());
+		}
+		long parsed = System.nanoTime();
+		metrics.recordStage(group, OAS3Metrics.Stage.PARSE, parsed - start);
+
+		OAS3ConversionStats stats = new OAS3ConversionStats();
+		OpenAPI openAPI = (filter != null)
+			? oas3Converter.convertOpenAPI(oas2, filter, stats)
+			: oas3Converter.convertOpenAPI(oas2, state, stats);
+		long converted = System.nanoTime();
+		metrics.recordStage(group, OAS3Metrics.Stage.CONVERT, converted - parsed);
+		metrics.recordSchemaMemo(group, stats.getSchemaMemoHits(), stats.getSchemaMemoMisses());
+		if(openAPI == null) {
+			return null;
+		}
+
+		byte[] bytes = (state != null) ? state.toJSON(openAPI).writeValueAsBytes() : JSON.writeValueAsBytes(openAPI);
+		long written = System.nanoTime();
+		metrics.recordStage(group, OAS3Metrics.Stage.WRITE, written - converted);
+		metrics.recordDocument(group, inputLength, bytes.length, countOperations(openAPI),
+			(openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null)
+				? openAPI.getComponents().getSchemas().size() : 0);
+
+		byte[] yamlBytes = null;
+		if(yaml) {
+			yamlBytes = YAML.writeValueAsBytes(openAPI);
+			metrics.recordStage(group, OAS3Metrics.Stage.YAML, System.nanoTime() - written);
+		}
+		return toDocument(group, bytes, yamlBytes);
+	}
+
+	private OAS3Document convertStreaming(String group, Source source, int inputLength, OAS3ConversionState state) throws IOException {
+		long start = System.nanoTime();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		OAS3ConversionStats stats = new OAS3ConversionStats();
+		try(JsonParser parser = source.open();
+			JsonGenerator generator = JSON.createGenerator(out)) {
+			if(parser == null || !oas3StreamingConverter.convertOpenAPI(parser, generator, state, stats)) {
+				return null;
+			}
+		}
+		byte[] bytes = out.toByteArray();
+		metrics.recordStage(group, OAS3Metrics.Stage.STREAM, System.nanoTime() - start);
+		metrics.recordSchemaMemo(group, stats.getSchemaMemoHits(), stats.getSchemaMemoMisses());
+		metrics.recordDocument(group, inputLength, bytes.length, -1, -1);
+		return toDocument(group, bytes, yaml ? yamlFromJSON(group, bytes) : null);
+	}
+
+	private OAS3Document toDocument(String group, byte[] json, byte[] yamlBytes) {
+		long start = System.nanoTime();
+		OAS3Document document = new OAS3Document(json, contentEncodings);
+		if(yamlBytes != null) {
+			document = document.withYaml(new OAS3Document(yamlBytes, contentEncodings));
+		}
+		if(offHeap) {
+			document = document.toDirect();
+		}
+		if(contentEncodings.length > 0) {
+			metrics.recordStage(group, OAS3Metrics.Stage.COMPRESS, System.nanoTime() - start);
+		}
+		return document;
+	}
+
+	// without the model, as after streaming or for a generated document, the YAML is copied from the JSON
+	private byte[] yamlFromJSON(String group, byte[] json) throws IOException {
+		long start = System.nanoTime();
+		byte[] yamlBytes = YAML.fromJSON(json);
+		metrics.recordStage(group, OAS3Metrics.Stage.YAML, System.nanoTime() - start);
+		return yamlBytes;
+	}
+
+	private OAS3Document loadDocument(String group, String basePath) {
+		try {
+			OAS3Document document = documentLoader.load(group, basePath, contentEncodings);
+			if(document != null && yaml) {
+				document = document.withYaml(new OAS3Document(yamlFromJSON(group, document.getBody()), contentEncodings));
+			}
+			return document;
+		} catch (IOException e) {
+			logger.warn("Failed to load the generated OAS3 document of group '" + group + "'", e);
+			return null;
+		}
+	}
+
+	private static int countOperations(OpenAPI openAPI) {
+		int operations = 0;
+		if(openAPI.getPaths() != null) {
+			for(PathItem pathItem: openAPI.getPaths().values()) {
+				operations += pathItem.readOperations().size();
+			}
+		}
+		return operations;
+	}
+
+	/**
+	 * Drops the converted documents of a Docket group, or of every group if it is null, so the next request
+	 * converts it again. With incremental conversion only the paths and schemas that changed are converted.
+	 * Conversions of the group in progress are not waited for by later requests and their documents are not cached.
+	 */
+	public void invalidate(String group) {
+		if(group != null) {
+			groupEpochs.computeIfAbsent(group, g -> new AtomicLong()).incrementAndGet();
+			conversions.keySet().removeIf(key -> key.getGroup().equals(group));
+			cache.removeGroup(group);
+			filteredCache.removeGroup(group);
+			breaches.keySet().removeIf(key -> key.getGroup().equals(group));
+		}
+		else {
+			epoch.incrementAndGet();
+			conversions.clear();
+			cache.clear();
+			filteredCache.clear();
+			breaches.clear();
+		}
+	}
+
+	// changes with every invalidate of the group, as both counters only grow; groups that were never
+	// invalidated have no counter of their own, so group names from requests do not add any
+	private long epoch(String group) {
+		AtomicLong groupEpoch = groupEpochs.get(group);
+		return epoch.get() + ((groupEpoch != null) ? groupEpoch.get() : 0);
+	}
+
+	/**
+	 * The media type the request accepts the document in: a YAML one if it prefers YAML and the document
+	 * has a YAML representation, JSON otherwise.
+	 */
+	public MediaType selectMediaType(OAS3Document document, HttpHeaders requestHeaders) {
+		if(document.getYaml() == null) {
+			return MediaType.APPLICATION_JSON_UTF8;
+		}
+		List<MediaType> accepts;
+		try {
+			accepts = new ArrayList<>(requestHeaders.getAccept());
+		} catch (InvalidMediaTypeException e) {
+			return MediaType.APPLICATION_JSON_UTF8;
+		}
+		MediaType.sortBySpecificityAndQuality(accepts);
+		for(MediaType accept: accepts) {
+			if(accept.getQualityValue() == 0.0) {
+				continue;
+			}
+			if(accept.includes(MediaType.APPLICATION_JSON) || accept.isCompatibleWith(APPLICATION_OPENAPI_JSON)) {
+				return MediaType.APPLICATION_JSON_UTF8;
+			}
+			if(accept.includes(APPLICATION_OPENAPI)) {
+				return new MediaType(APPLICATION_OPENAPI, StandardCharsets.UTF_8);
+			}
+			if(accept.includes(APPLICATION_YAML)) {
+				return new MediaType(APPLICATION_YAML, StandardCharsets.UTF_8);
+			}
+		}
+		return MediaType.APPLICATION_JSON_UTF8;
+	}
+
+	/**
+	 * The representation of the document in a media type from {@link #selectMediaType(OAS3Document, HttpHeaders)}.
+	 */
+	public OAS3Document representation(OAS3Document document, MediaType mediaType) {
+		return MediaType.APPLICATION_JSON_UTF8.equals(mediaType) ? document : document.getYaml();
+	}
+
+	/**
+	 * The Vary header of the responses with the document, null if they do not vary.
+	 */
+	public String vary(OAS3Document document) {
+		boolean encodings = document.getEncodings().size() > 1;
+		if(document.getYaml() == null) {
+			return encodings ? HttpHeaders.ACCEPT_ENCODING : null;
+		}
+		return encodings ? HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING : HttpHeaders.ACCEPT;
+	}
+
+	/**
+	 * Whether the If-None-Match header matches the ETag of the variant. A malformed header is ignored.
+	 */
+	public boolean isNotModified(String documentETag, HttpHeaders requestHeaders) {
+		List<String> ifNoneMatch;
+		try {
+			ifNoneMatch = requestHeaders.getIfNoneMatch();
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+		for(String etag: ifNoneMatch) {
+			if(etag.equals("*")) {
+				return true;
+			}
+			// If-None-Match uses the weak comparison
+			if(etag.startsWith("W/")) {
+				etag = etag.substring(2);
+			}
+			if(etag.equals(documentETag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The pre-compressed variant with the highest Accept-Encoding quality, identity if none is acceptable.
+	 */
+	public String selectEncoding(OAS3Document document, HttpHeaders requestHeaders) {
+		List<String> acceptEncodings = requestHeaders.get(HttpHeaders.ACCEPT_ENCODING);
+		if(acceptEncodings == null || document.getEncodings().size() == 1) {
+			return OAS3Document.IDENTITY;
+		}
+
+		Map<String,Float> qualities = new HashMap<>();
+		for(String acceptEncoding: acceptEncodings) {
+			for(String coding: acceptEncoding.split(",")) {
+				String[] params = coding.split(";");
+				float quality = 1.0f;
+				for(int i = 1; i < params.length; i++) {
+					String param = params[i].trim();
+					if(param.startsWith("q=")) {
+						try {
+							quality = Float.parseFloat(param.substring(2));
+						} catch (NumberFormatException e) {
+							quality = 0.0f;
+						}
+					}
+				}
+				qualities.put(params[0].trim().toLowerCase(), quality);
+			}
+		}
+
+		String selected = OAS3Document.IDENTITY;
+		float selectedQuality = 0.0f;
+		for(String encoding: document.getEncodings()) {
+			if(encoding.equals(OAS3Document.IDENTITY)) {
+				continue;
+			}
+			Float quality = qualities.containsKey(encoding) ? qualities.get(encoding) : qualities.get("*");
+			if(quality != null && quality > selectedQuality) {
+				selected = encoding;
+				selectedQuality = quality;
+			}
+		}
+		return selected;
+	}
+
+	public void setStreaming(boolean streaming) {
+		oas3StreamingConverter = streaming ? new OAS3StreamingConverter(oas3Converter) : null;
+	}
+
+	/**
+	 * Keeps the converted paths and schemas of each group, so a document converted again after
+	 * {@link #invalidate(String)} converts only the paths and definitions that changed.
+	 */
+	public void setIncremental(boolean incremental) {
+		states = incremental ? new ConcurrentHashMap<>() : null;
+	}
+
+	/**
+	 * Serves the documents generated at build time by OAS3Generator where there is one for the group
+	 * and basePath, converting only the others.
+	 */
+	public void setDocumentLoader(OAS3DocumentLoader documentLoader) {
+		this.documentLoader = documentLoader;
+	}
+
+	/**
+	 * Content encodings the converted documents are pre-compressed with, "gzip" and "deflate" by default.
+	 */
+	public void setContentEncodings(String... contentEncodings) {
+		for(String contentEncoding: contentEncodings) {
+			if(!OAS3Document.isSupportedEncoding(contentEncoding)) {
+				throw new IllegalArgumentException("Unsupported content encoding: " + contentEncoding);
+			}
+		}
+		this.contentEncodings = contentEncodings.clone();
+	}
+
+	/**
+	 * Also makes a YAML representation of every converted document, served to requests that prefer
+	 * application/yaml or application/vnd.oai.openapi by OAS3Controller and OAS3ReactiveHandler, not by
+	 * the Swagger 2.0 endpoint. Requires jackson-dataformat-yaml.
+	 */
+	public void setYaml(boolean yaml) {
+		if(yaml && !ClassUtils.isPresent(YAML_FACTORY_CLASS, getClass().getClassLoader())) {
+			throw new IllegalStateException("YAML documents require jackson-dataformat-yaml on the classpath");
+		}
+		this.yaml = yaml;
+	}
+
+	/**
+	 * Keeps converted documents in direct buffers outside of the Java heap.
+	 */
+	public void setOffHeap(boolean offHeap) {
+		this.offHeap = offHeap;
+	}
+
+	/**
+	 * Milliseconds a Swagger 2.0 documentation request waits for its document to be converted before it is
+	 * answered with the Swagger 2.0 document instead, 0 to always wait, see {@link #convert(OAS3CacheKey, Json, long)}.
+	 * Only applies when a conversion executor is set.
+	 */
+	public void setConversionTimeout(long conversionTimeout) {
+		this.conversionTimeout = conversionTimeout;
+	}
+
+	public long getConversionTimeout() {
+		return conversionTimeout;
+	}
+
+	/**
+	 * Executor conversions with a timeout run on, so the request that started one can stop waiting for it.
+	 * A conversion it rejects runs on the request thread.
+	 */
+	public void setConversionExecutor(Executor conversionExecutor) {
+		this.conversionExecutor = conversionExecutor;
+	}
+
+	public void setMetrics(OAS3Metrics metrics) {
+		this.metrics = (metrics != null) ? metrics : OAS3Metrics.NOOP;
+	}
+
+	/**
+	 * Jackson modules the springfox Swagger model is serialized with, as for springfox's JsonSerializer.
+	 */
+	public void setJacksonModuleRegistrars(List<JacksonModuleRegistrar> registrars) {
+		ObjectMapper mapper = new ObjectMapper();
+		for(JacksonModuleRegistrar registrar: registrars) {
+			registrar.maybeRegisterModule(mapper);
+		}
+		this.swaggerMapper = mapper;
+	}
+
+	public OAS3Cache<OAS3Document> getCache() {
+		return cache;
+	}
+
+	/**
+	 * The cache of filtered views, {@link OAS3Cache#DEFAULT_FILTERED_MAX_SIZE} documents by default.
+	 */
+	public void setFilteredCache(OAS3Cache<OAS3Document> filteredCache) {
+		this.filteredCache = filteredCache;
+	}
+
+	public OAS3Cache<OAS3Document> getFilteredCache() {
+		return filteredCache;
+	}
+
+	private static ObjectMapper swaggerMapper() {
+		ObjectMapper mapper = new ObjectMapper();
+		new Swagger2JacksonModule().maybeRegisterModule(mapper);
+		return mapper;
+	}
+
+	private interface Source {
+		JsonParser open() throws IOException;
+	}
+
+}
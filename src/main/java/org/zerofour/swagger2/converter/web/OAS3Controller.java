@@ -0,0 +1,103 @@
+package org.zerofour.swagger2.converter.web;
+
+import io.swagger.models.Swagger;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.util.UriComponents;
+import org.zerofour.swagger2.converter.advice.OAS3ConverterAdvice;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import springfox.documentation.annotations.ApiIgnore;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.PropertySourcedMapping;
+import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.swagger.common.HostNameProvider;
+import springfox.documentation.swagger2.mappers.ServiceModelToSwagger2Mapper;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Serves the OAS3 document of a Docket group, converted from the springfox Swagger model without the
+ * Swagger 2.0 JSON text, see {@link OAS3DocumentService#convert(OAS3CacheKey, java.util.function.Supplier)}.
+ * It shares the {@link OAS3DocumentService} of {@link OAS3ConverterAdvice}, so /v2/api-docs and /v3/api-docs
+ * convert once.
+ */
+@Controller
+@ApiIgnore
+public class OAS3Controller {
+	public static final String DEFAULT_URL = "/v3/api-docs";
+
+	private final OAS3ConverterAdvice advice;
+	private final DocumentationCache documentationCache;
+	private final ServiceModelToSwagger2Mapper mapper;
+	private final String hostNameOverride;
+
+	public OAS3Controller(Environment environment,
+	                      OAS3ConverterAdvice advice,
+	                      DocumentationCache documentationCache,
+	                      ServiceModelToSwagger2Mapper mapper) {
+		this.advice = advice;
+		this.documentationCache = documentationCache;
+		this.mapper = mapper;
+		this.hostNameOverride = environment.getProperty("springfox.documentation.swagger.v2.host", "DEFAULT");
+	}
+
+	@RequestMapping(value = DEFAULT_URL, method = RequestMethod.GET,
+		produces = { MediaType.APPLICATION_JSON_VALUE, "application/vnd.oai.openapi", "application/yaml" })
+	@PropertySourcedMapping(value = "${springfox.documentation.oas3.path}", propertyKey = "springfox.documentation.oas3.path")
+	public void getDocumentation(@RequestParam(value = "group", required = false) String group,
+	                             HttpServletRequest servletRequest,
+	                             HttpServletResponse servletResponse) throws IOException {
+		String groupName = (group != null) ? group : Docket.DEFAULT_GROUP_NAME;
+		// no documentation is fine when the document was generated at build time
+		Documentation documentation = documentationCache.documentationByGroup(groupName);
+
+		ServletServerHttpRequest request = new ServletServerHttpRequest(servletRequest);
+		OAS3CacheKey key = advice.cacheKey(request);
+		OAS3Document document = advice.getService().convert(key,
+			() -> (documentation != null) ? swagger(documentation, servletRequest) : null);
+		if(document == null) {
+			servletResponse.sendError((documentation == null)
+				? HttpStatus.NOT_FOUND.value()
+				: HttpStatus.INTERNAL_SERVER_ERROR.value());
+			return;
+		}
+
+		try(ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse)) {
+			advice.writeDocument(document, request, response);
+		}
+	}
+
+	// the same host and basePath as Swagger2Controller
+	private Swagger swagger(Documentation documentation, HttpServletRequest servletRequest) {
+		Swagger swagger = mapper.mapDocumentation(documentation);
+		UriComponents components = HostNameProvider.componentsFrom(servletRequest, swagger.getBasePath());
+		String basePath = components.getPath();
+		swagger.basePath((basePath == null || basePath.isEmpty()) ? "/" : basePath);
+		if(swagger.getHost() == null || swagger.getHost().isEmpty()) {
+			swagger.host(hostName(components));
+		}
+		return swagger;
+	}
+
+	private String hostName(UriComponents components) {
+		if(!"DEFAULT".equals(hostNameOverride)) {
+			return hostNameOverride;
+		}
+		if(components.getPort() > -1) {
+			return components.getHost() + ":" + components.getPort();
+		}
+		return components.getHost();
+	}
+}
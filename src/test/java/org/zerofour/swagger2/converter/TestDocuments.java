@@ -0,0 +1,30 @@
+package org.zerofour.swagger2.converter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Swagger 2.0 documents of the tests, under src/test/resources/swagger2.
+ */
+public final class TestDocuments {
+
+	private TestDocuments() {
+	}
+
+	public static String read(String name) throws IOException {
+		try(InputStream in = TestDocuments.class.getResourceAsStream("/swagger2/" + name)) {
+			if(in == null) {
+				throw new IOException("no test document " + name);
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int n;
+			while((n = in.read(buffer)) > 0) {
+				out.write(buffer, 0, n);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package org.zerofour.swagger2.converter;
+
+import io.swagger.models.Contact;
+import io.swagger.models.Info;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.Tag;
+import springfox.documentation.service.ApiInfo;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.swagger2.mappers.ServiceModelToSwagger2Mapper;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps every documentation to a group with two operations, as springfox would, counting the mappings.
+ */
+public class TestMapper extends ServiceModelToSwagger2Mapper {
+	private final AtomicInteger mapped = new AtomicInteger();
+
+	public int getMapped() {
+		return mapped.get();
+	}
+
+	@Override
+	public Swagger mapDocumentation(Documentation documentation) {
+		mapped.incrementAndGet();
+		return new Swagger()
+			.info(new Info().title("Orders").version("1.0"))
+			.basePath("/api")
+			.tag(new Tag().name("orders"))
+			.path("/orders", new Path()
+				.get(new Operation().tag("orders").response(200, new Response().description("OK")))
+				.post(new Operation().tag("orders").response(201, new Response().description("Created"))));
+	}
+
+	@Override
+	protected Info mapApiInfo(ApiInfo apiInfo) {
+		return null;
+	}
+
+	@Override
+	protected Contact map(springfox.documentation.service.Contact contact) {
+		return null;
+	}
+
+	@Override
+	protected Operation mapOperation(springfox.documentation.service.Operation operation) {
+		return null;
+	}
+
+	@Override
+	protected Tag mapTag(springfox.documentation.service.Tag tag) {
+		return null;
+	}
+}
@@ -0,0 +1,87 @@
+package org.zerofour.swagger2.converter.advice;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.zerofour.swagger2.converter.TestDocuments;
+import org.zerofour.swagger2.converter.cache.OAS3Cache;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.oas3.OAS3Converter;
+import org.zerofour.swagger2.converter.oas3.OAS3Limits;
+import org.zerofour.swagger2.converter.oas3.OAS3PathFilter;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import springfox.documentation.spring.web.json.Json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Filtered views, "?tag=" and "?pathPrefix=", of the Swagger 2.0 documentation.
+ */
+public class OAS3ConverterAdviceFilterTest {
+	private Json body;
+
+	@Before
+	public void setUp() throws Exception {
+		body = new Json(TestDocuments.read("orders.json"));
+	}
+
+	@Test
+	public void filteredViewsDoNotEvictDocuments() {
+		OAS3DocumentService service = new OAS3DocumentService(new OAS3Cache<>(2));
+		service.setFilteredCache(new OAS3Cache<>(4));
+		OAS3CacheKey key = new OAS3CacheKey("default", "/");
+		service.convert(key, body);
+
+		for(int i = 0; i < 100; i++) {
+			service.convert(new OAS3CacheKey("default", "/", new OAS3PathFilter("tag" + i, null)), body);
+		}
+
+		assertNotNull(service.getCached(key));
+		assertEquals(1, service.getCache().size());
+		assertEquals(4, service.getFilteredCache().size());
+	}
+
+	@Test
+	public void invalidateDropsFilteredViews() {
+		OAS3DocumentService service = new OAS3DocumentService();
+		OAS3CacheKey key = new OAS3CacheKey("default", "/", new OAS3PathFilter("billing", null));
+		service.convert(key, body);
+		assertNotNull(service.getCached(key));
+
+		service.invalidate("default");
+
+		assertNull(service.getCached(key));
+	}
+
+	@Test
+	public void unconvertedFilteredViewIsAnError() {
+		OAS3Converter converter = new OAS3Converter();
+		converter.setLimits(new OAS3Limits(0, 1, 0, 0));
+		OAS3ConverterAdvice advice = new OAS3ConverterAdvice(new OAS3DocumentService(new OAS3Cache<>(), converter));
+
+		MockHttpServletResponse filtered = new MockHttpServletResponse();
+		assertNull(beforeBodyWrite(advice, "billing", filtered));
+		assertEquals(503, filtered.getStatus());
+
+		// the whole document is served as Swagger 2.0
+		MockHttpServletResponse whole = new MockHttpServletResponse();
+		assertSame(body, beforeBodyWrite(advice, null, whole));
+		assertEquals(200, whole.getStatus());
+	}
+
+	private Json beforeBodyWrite(OAS3ConverterAdvice advice, String tag, MockHttpServletResponse servletResponse) {
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/v2/api-docs");
+		if(tag != null) {
+			servletRequest.setParameter("tag", tag);
+		}
+		return advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON, null,
+			new ServletServerHttpRequest(servletRequest), new ServletServerHttpResponse(servletResponse));
+	}
+}
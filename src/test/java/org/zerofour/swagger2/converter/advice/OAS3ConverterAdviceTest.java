@@ -0,0 +1,349 @@
+package org.zerofour.swagger2.converter.advice;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.zerofour.swagger2.converter.TestDocuments;
+import org.zerofour.swagger2.converter.cache.OAS3Cache;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+import org.zerofour.swagger2.converter.oas3.OAS3Converter;
+import org.zerofour.swagger2.converter.oas3.OAS3Limits;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import springfox.documentation.spring.web.json.Json;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The responses of the Swagger 2.0 endpoint and of {@link OAS3ConverterAdvice#writeDocument}, as used by
+ * the OAS3 endpoint.
+ */
+public class OAS3ConverterAdviceTest {
+	private Json body;
+	private OAS3DocumentService service;
+	private OAS3ConverterAdvice advice;
+
+	@Before
+	public void setUp() throws Exception {
+		body = new Json(TestDocuments.read("orders.json"));
+		service = new OAS3DocumentService();
+		service.setYaml(true);
+		advice = new OAS3ConverterAdvice(service);
+	}
+
+	@Test
+	public void swagger2EndpointServesJSONOnly() throws Exception {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.ACCEPT, "application/yaml, application/json;q=0.5");
+		MockHttpServletResponse response = beforeBodyWrite(request);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(MediaType.APPLICATION_JSON_UTF8_VALUE, response.getContentType());
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+		assertTrue(response.getContentAsString().startsWith("{"));
+	}
+
+	@Test
+	public void oas3EndpointNegotiatesYAML() throws Exception {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.ACCEPT, "application/yaml");
+		MockHttpServletResponse response = writeDocument(request);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("application/yaml;charset=UTF-8", response.getContentType());
+		assertEquals(HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+		assertTrue(response.getContentAsString().startsWith("openapi:"));
+	}
+
+	@Test
+	public void oas3EndpointPrefersJSON() throws Exception {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.ACCEPT, "application/json, application/yaml");
+		MockHttpServletResponse response = writeDocument(request);
+
+		assertEquals(MediaType.APPLICATION_JSON_UTF8_VALUE, response.getContentType());
+		assertTrue(response.getContentAsString().startsWith("{"));
+	}
+
+	@Test
+	public void documentNestedTooDeepIsServedUnconverted() {
+		OAS3Converter converter = new OAS3Converter();
+		converter.setLimits(new OAS3Limits(0, 0, 16, 0));
+		OAS3ConverterAdvice limited = new OAS3ConverterAdvice(new OAS3DocumentService(new OAS3Cache<>(), converter));
+		StringBuilder nested = new StringBuilder();
+		for(int i = 0; i < 100000; i++) {
+			nested.append("{\"a\":");
+		}
+		for(int i = 0; i < 100000; i++) {
+			nested.append("}");
+		}
+		Json deep = new Json("{\"swagger\":\"2.0\",\"paths\":{},\"x-deep\":" + nested + "}");
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		assertSame(deep, limited.beforeBodyWrite(deep, null, MediaType.APPLICATION_JSON, null,
+			new ServletServerHttpRequest(request()), new ServletServerHttpResponse(response)));
+		assertNull(limited.getService().getCached(limited.cacheKey(new ServletServerHttpRequest(request()))));
+	}
+
+	@Test
+	public void etagOfTheDocument() throws Exception {
+		MockHttpServletResponse first = beforeBodyWrite(request());
+		MockHttpServletResponse second = beforeBodyWrite(request());
+
+		String etag = first.getHeader(HttpHeaders.ETAG);
+		assertTrue(etag, etag.startsWith("\"") && etag.endsWith("\""));
+		assertEquals(etag, second.getHeader(HttpHeaders.ETAG));
+		assertArrayEquals(first.getContentAsByteArray(), second.getContentAsByteArray());
+	}
+
+	@Test
+	public void ifNoneMatch() throws Exception {
+		String etag = beforeBodyWrite(request()).getHeader(HttpHeaders.ETAG);
+
+		for(String ifNoneMatch: new String[] { etag, "W/" + etag, "\"other\", " + etag, "*" }) {
+			MockHttpServletRequest request = request();
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+			MockHttpServletResponse response = beforeBodyWrite(request);
+			assertEquals(ifNoneMatch, 304, response.getStatus());
+			assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+			assertEquals(0, response.getContentAsByteArray().length);
+		}
+
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+		MockHttpServletResponse response = beforeBodyWrite(request);
+		assertEquals(200, response.getStatus());
+		assertTrue(response.getContentAsByteArray().length > 0);
+	}
+
+	@Test
+	public void malformedIfNoneMatchIsIgnored() throws Exception {
+		byte[] identity = beforeBodyWrite(request()).getContentAsByteArray();
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc");
+		MockHttpServletResponse response = beforeBodyWrite(request);
+
+		assertEquals(200, response.getStatus());
+		assertArrayEquals(identity, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void etagOfEachVariant() throws Exception {
+		MockHttpServletRequest gzip = request();
+		gzip.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		String identityETag = beforeBodyWrite(request()).getHeader(HttpHeaders.ETAG);
+		String gzipETag = beforeBodyWrite(gzip).getHeader(HttpHeaders.ETAG);
+		assertNotEquals(identityETag, gzipETag);
+
+		// the ETag of the identity variant does not match the gzip one
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, identityETag);
+		assertEquals(200, beforeBodyWrite(request).getStatus());
+	}
+
+	@Test
+	public void invalidatedDocumentHasANewETag() throws Exception {
+		String etag = beforeBodyWrite(request()).getHeader(HttpHeaders.ETAG);
+		body = new Json(body.value().replace("\"title\":\"", "\"title\":\"New "));
+		service.invalidate(null);
+
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		MockHttpServletResponse response = beforeBodyWrite(request);
+		assertEquals(200, response.getStatus());
+		assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	public void gzip() throws Exception {
+		byte[] identity = beforeBodyWrite(request()).getContentAsByteArray();
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+		MockHttpServletResponse response = beforeBodyWrite(request);
+
+		assertEquals(OAS3Document.GZIP, response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+		assertArrayEquals(identity, readAll(new GZIPInputStream(
+			new ByteArrayInputStream(response.getContentAsByteArray()))));
+	}
+
+	@Test
+	public void deflate() throws Exception {
+		byte[] identity = beforeBodyWrite(request()).getContentAsByteArray();
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.5, deflate");
+		MockHttpServletResponse response = beforeBodyWrite(request);
+
+		assertEquals(OAS3Document.DEFLATE, response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertArrayEquals(identity, readAll(new InflaterInputStream(
+			new ByteArrayInputStream(response.getContentAsByteArray()))));
+	}
+
+	@Test
+	public void acceptEncoding() throws Exception {
+		assertEquals(OAS3Document.GZIP, contentEncoding("*"));
+		assertEquals(OAS3Document.DEFLATE, contentEncoding("gzip;q=0, *"));
+		assertEquals(OAS3Document.DEFLATE, contentEncoding("GZIP;q=0.1, Deflate;q=0.2"));
+		assertNull(contentEncoding("br"));
+		assertNull(contentEncoding("gzip;q=0, deflate;q=0"));
+		assertNull(contentEncoding("gzip;q=x"));
+		assertNull(contentEncoding(null));
+	}
+
+	@Test
+	public void withoutEncodings() throws Exception {
+		service.setContentEncodings();
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		MockHttpServletResponse response = beforeBodyWrite(request);
+
+		assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertNull(response.getHeader(HttpHeaders.VARY));
+	}
+
+	private String contentEncoding(String acceptEncoding) {
+		MockHttpServletRequest request = request();
+		if(acceptEncoding != null) {
+			request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+		MockHttpServletResponse response = beforeBodyWrite(request);
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+		return response.getHeader(HttpHeaders.CONTENT_ENCODING);
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+
+	@Test
+	public void range() throws Exception {
+		byte[] identity = beforeBodyWrite(request()).getContentAsByteArray();
+		MockHttpServletResponse response = beforeBodyWrite(range("bytes=10-19", null));
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 10-19/" + identity.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals(10, response.getContentLength());
+		assertArrayEquals(Arrays.copyOfRange(identity, 10, 20), response.getContentAsByteArray());
+		assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+	}
+
+	@Test
+	public void suffixAndOpenRanges() throws Exception {
+		byte[] identity = beforeBodyWrite(request()).getContentAsByteArray();
+		int length = identity.length;
+
+		MockHttpServletResponse suffix = beforeBodyWrite(range("bytes=-5", null));
+		assertEquals("bytes " + (length - 5) + "-" + (length - 1) + "/" + length, suffix.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertArrayEquals(Arrays.copyOfRange(identity, length - 5, length), suffix.getContentAsByteArray());
+
+		// past the end of the document, up to its end
+		MockHttpServletResponse open = beforeBodyWrite(range("bytes=" + (length - 3) + "-" + (length + 100), null));
+		assertEquals(206, open.getStatus());
+		assertArrayEquals(Arrays.copyOfRange(identity, length - 3, length), open.getContentAsByteArray());
+	}
+
+	@Test
+	public void rangeOfEncodedVariant() throws Exception {
+		MockHttpServletRequest gzip = request();
+		gzip.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		byte[] encoded = beforeBodyWrite(gzip).getContentAsByteArray();
+
+		MockHttpServletRequest request = range("bytes=0-9", null);
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		MockHttpServletResponse response = beforeBodyWrite(request);
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 0-9/" + encoded.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertArrayEquals(Arrays.copyOf(encoded, 10), response.getContentAsByteArray());
+	}
+
+	@Test
+	public void unsatisfiableRange() throws Exception {
+		int length = beforeBodyWrite(request()).getContentAsByteArray().length;
+		MockHttpServletResponse response = beforeBodyWrite(range("bytes=" + length + "-", null));
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */" + length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	public void wholeDocumentInsteadOfRange() throws Exception {
+		byte[] identity = beforeBodyWrite(request()).getContentAsByteArray();
+		String etag = beforeBodyWrite(request()).getHeader(HttpHeaders.ETAG);
+
+		// several ranges, an invalid one, and an If-Range of another variant or a date
+		for(MockHttpServletRequest request: new MockHttpServletRequest[] {
+			range("bytes=0-9, 20-29", null),
+			range("bytes=9-0", null),
+			range("lines=0-9", null),
+			range("bytes=0-9", "\"other\""),
+			range("bytes=0-9", "W/" + etag),
+			range("bytes=0-9", "Wed, 21 Oct 2015 07:28:00 GMT") }) {
+			MockHttpServletResponse response = beforeBodyWrite(request);
+			assertEquals(200, response.getStatus());
+			assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+			assertArrayEquals(identity, response.getContentAsByteArray());
+		}
+
+		assertEquals(206, beforeBodyWrite(range("bytes=0-9", etag)).getStatus());
+	}
+
+	private static MockHttpServletRequest range(String range, String ifRange) {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.RANGE, range);
+		if(ifRange != null) {
+			request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+		}
+		return request;
+	}
+
+	private static MockHttpServletRequest request() {
+		return new MockHttpServletRequest("GET", "/v2/api-docs");
+	}
+
+	// closed as by Spring MVC, so the headers of a response without a body are written too
+	private MockHttpServletResponse beforeBodyWrite(MockHttpServletRequest servletRequest) {
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+		try(ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse)) {
+			assertNull(advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON, null,
+				new ServletServerHttpRequest(servletRequest), response));
+		}
+		return servletResponse;
+	}
+
+	private MockHttpServletResponse writeDocument(MockHttpServletRequest servletRequest) throws IOException {
+		ServletServerHttpRequest request = new ServletServerHttpRequest(servletRequest);
+		OAS3CacheKey key = advice.cacheKey(request);
+		OAS3Document document = service.convert(key, body);
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+		try(ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse)) {
+			advice.writeDocument(document, request, response);
+		}
+		return servletResponse;
+	}
+}
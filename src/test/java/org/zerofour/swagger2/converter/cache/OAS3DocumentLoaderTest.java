@@ -0,0 +1,91 @@
+package org.zerofour.swagger2.converter.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OAS3DocumentLoaderTest {
+	private static final byte[] ROOT = "{\"openapi\":\"3.0.1\",\"servers\":[{\"url\":\"/\"}]}".getBytes(StandardCharsets.UTF_8);
+	// variants are read as they are
+	private static final byte[] GZIPPED = { 0x1f, (byte)0x8b, 8, 0 };
+	private static final byte[] API = "{\"openapi\":\"3.0.1\",\"servers\":[{\"url\":\"/api/v1\"}]}".getBytes(StandardCharsets.UTF_8);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void directories() {
+		assertEquals("", OAS3DocumentLoader.directory(null));
+		assertEquals("", OAS3DocumentLoader.directory("/"));
+		assertEquals("api/v1/", OAS3DocumentLoader.directory("/api/v1"));
+		assertEquals("api/v1/", OAS3DocumentLoader.directory("/api//v1/"));
+		assertNull(OAS3DocumentLoader.directory("/api/../.."));
+		assertNull(OAS3DocumentLoader.directory("/api/."));
+		assertNull(OAS3DocumentLoader.directory("/a b"));
+	}
+
+	@Test
+	public void fileNames() {
+		assertEquals("default.json", OAS3DocumentLoader.fileName("default"));
+		assertEquals("orders_v2.json.gz", OAS3DocumentLoader.fileName("orders/v2", OAS3Document.GZIP));
+		assertEquals("orders_v2.json.deflate", OAS3DocumentLoader.fileName("orders/v2", OAS3Document.DEFLATE));
+	}
+
+	@Test
+	public void documentOfTheBasePath() throws Exception {
+		OAS3DocumentLoader loader = loader();
+
+		OAS3Document root = loader.load("default", "/", OAS3Document.GZIP, OAS3Document.DEFLATE);
+		assertArrayEquals(ROOT, root.getBody());
+		assertEquals(new OAS3Document(ROOT).getETag(), root.getETag());
+		assertEquals(new HashSet<>(Arrays.asList(OAS3Document.IDENTITY, OAS3Document.GZIP)), root.getEncodings());
+		assertArrayEquals(GZIPPED, root.getBody(OAS3Document.GZIP));
+
+		assertArrayEquals(API, loader.load("default", "/api/v1/").getBody());
+		assertNull(loader.load("default", "/other"));
+		assertNull(loader.load("default", "/api/v1/.."));
+		assertNull(loader.load("missing", "/"));
+	}
+
+	@Test
+	public void servedOnlyForItsBasePath() throws Exception {
+		OAS3DocumentService service = new OAS3DocumentService();
+		service.setDocumentLoader(loader());
+
+		assertArrayEquals(ROOT, service.convert(new OAS3CacheKey("default", "/"), () -> {
+			throw new AssertionError("converted");
+		}).getBody());
+		assertArrayEquals(API, service.convert(new OAS3CacheKey("default", "/api/v1"), () -> {
+			throw new AssertionError("converted");
+		}).getBody());
+		// converted, as the "servers" url of a generated document would not be the request's
+		AtomicBoolean converted = new AtomicBoolean();
+		assertNull(service.convert(new OAS3CacheKey("default", "/other"), () -> {
+			converted.set(true);
+			return null;
+		}));
+		assertTrue(converted.get());
+	}
+
+	private OAS3DocumentLoader loader() throws Exception {
+		File root = folder.getRoot();
+		Files.write(new File(root, "default.json").toPath(), ROOT);
+		Files.write(new File(root, "default.json.gz").toPath(), GZIPPED);
+		File api = folder.newFolder("api", "v1");
+		Files.write(new File(api, "default.json").toPath(), API);
+		return new OAS3DocumentLoader(root.toURI().toString());
+	}
+}
@@ -0,0 +1,88 @@
+package org.zerofour.swagger2.converter.generator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zerofour.swagger2.converter.TestMapper;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+import org.zerofour.swagger2.converter.cache.OAS3DocumentLoader;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import springfox.documentation.builders.DocumentationBuilder;
+import springfox.documentation.spring.web.DocumentationCache;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class OAS3GeneratorTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private DocumentationCache documentationCache;
+	private TestMapper mapper;
+
+	@Before
+	public void setUp() {
+		documentationCache = new DocumentationCache();
+		documentationCache.addDocumentation(new DocumentationBuilder().name("orders").build());
+		documentationCache.addDocumentation(new DocumentationBuilder().name("orders/v2").build());
+		mapper = new TestMapper();
+	}
+
+	@Test
+	public void filesOfEveryGroup() throws Exception {
+		Path output = folder.getRoot().toPath();
+		List<Path> files = new OAS3Generator("/api", OAS3Document.GZIP)
+			.generate(output, documentationCache, mapper, Collections.emptyList());
+
+		Path api = output.resolve("api");
+		assertEquals(Arrays.asList(api.resolve("orders.json"), api.resolve("orders.json.gz"),
+			api.resolve("orders_v2.json"), api.resolve("orders_v2.json.gz")), sorted(files));
+	}
+
+	// generated and runtime documents are interchangeable for clients that cached an ETag
+	@Test
+	public void sameBytesAsAtRuntime() throws Exception {
+		assertSameBytesAsAtRuntime(false);
+	}
+
+	@Test
+	public void sameBytesAsAtRuntimeStreaming() throws Exception {
+		assertSameBytesAsAtRuntime(true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void basePathThatIsNotADirectory() {
+		new OAS3Generator("/api/..");
+	}
+
+	private void assertSameBytesAsAtRuntime(boolean streaming) throws Exception {
+		OAS3Generator generator = new OAS3Generator("/api", OAS3Document.GZIP);
+		generator.setStreaming(streaming);
+		generator.generate(folder.getRoot().toPath(), documentationCache, mapper, Collections.emptyList());
+		OAS3Document generated = new OAS3DocumentLoader(folder.getRoot().toURI().toString())
+			.load("orders", "/api", OAS3Document.GZIP);
+
+		OAS3DocumentService service = new OAS3DocumentService();
+		service.setStreaming(streaming);
+		service.setContentEncodings(OAS3Document.GZIP);
+		OAS3Document converted = service.convert(new OAS3CacheKey("orders", "/api"),
+			() -> mapper.mapDocumentation(documentationCache.documentationByGroup("orders")));
+
+		assertArrayEquals(converted.getBody(), generated.getBody());
+		assertEquals(converted.getETag(), generated.getETag());
+		assertEquals(converted.getETag(OAS3Document.GZIP), generated.getETag(OAS3Document.GZIP));
+	}
+
+	private static List<Path> sorted(List<Path> files) {
+		Path[] sorted = files.toArray(new Path[0]);
+		Arrays.sort(sorted);
+		return Arrays.asList(sorted);
+	}
+}
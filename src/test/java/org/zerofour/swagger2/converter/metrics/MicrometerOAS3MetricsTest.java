@@ -0,0 +1,107 @@
+package org.zerofour.swagger2.converter.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.zerofour.swagger2.converter.TestDocuments;
+import org.zerofour.swagger2.converter.cache.OAS3Cache;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.oas3.OAS3Converter;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import springfox.documentation.spring.web.json.Json;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MicrometerOAS3MetricsTest {
+	private SimpleMeterRegistry registry;
+	private MicrometerOAS3Metrics metrics;
+
+	@Before
+	public void setUp() {
+		registry = new SimpleMeterRegistry();
+		metrics = new MicrometerOAS3Metrics(registry);
+	}
+
+	@Test
+	public void stageTimers() {
+		metrics.recordStage("orders", OAS3Metrics.Stage.PARSE, 1000000);
+		Timer timer = registry.get("oas3.conversion.stage").tag("group", "orders").tag("stage", "parse").timer();
+		metrics.recordStage("orders", OAS3Metrics.Stage.PARSE, 3000000);
+		metrics.recordStage("orders", OAS3Metrics.Stage.WRITE, 1000000);
+		metrics.recordStage("billing", OAS3Metrics.Stage.PARSE, 1000000);
+
+		assertSame(timer, registry.get("oas3.conversion.stage").tag("group", "orders").tag("stage", "parse").timer());
+		assertEquals(2, timer.count());
+		assertEquals(4, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+		assertEquals(1, registry.get("oas3.conversion.stage").tag("group", "orders").tag("stage", "write").timer().count());
+		assertEquals(1, registry.get("oas3.conversion.stage").tag("group", "billing").timer().count());
+	}
+
+	@Test
+	public void counters() {
+		metrics.recordCacheHit("orders");
+		metrics.recordCacheHit("orders");
+		metrics.recordCacheMiss("orders");
+		metrics.recordCoalesced("orders");
+		metrics.recordSchemaMemo("orders", 5, 3);
+		metrics.recordSchemaMemo("orders", 1, 0);
+		metrics.recordFailure("orders");
+		metrics.recordFallback("orders", "timeout");
+		metrics.recordFallback("orders", "operations");
+		metrics.recordFallback("orders", "timeout");
+
+		assertEquals(2, count("oas3.cache", "result", "hit"), 0);
+		assertEquals(1, count("oas3.cache", "result", "miss"), 0);
+		assertEquals(1, count("oas3.cache", "result", "coalesced"), 0);
+		assertEquals(6, count("oas3.schema.memo", "result", "hit"), 0);
+		assertEquals(3, count("oas3.schema.memo", "result", "miss"), 0);
+		assertEquals(1, registry.get("oas3.conversion.failures").tag("group", "orders").counter().count(), 0);
+		assertEquals(2, count("oas3.conversion.fallbacks", "reason", "timeout"), 0);
+		assertEquals(1, count("oas3.conversion.fallbacks", "reason", "operations"), 0);
+	}
+
+	@Test
+	public void documentSummaries() {
+		metrics.recordDocument("orders", 2000, 1500, 7, 5);
+		metrics.recordDocument("orders", 1000, 500, -1, -1);
+
+		DistributionSummary size = registry.get("oas3.document.size").tag("group", "orders").summary();
+		assertEquals(2, size.count());
+		assertEquals(2000, size.totalAmount(), 0);
+		assertEquals("bytes", size.getId().getBaseUnit());
+		assertEquals(3000, registry.get("oas3.document.input.length").summary().totalAmount(), 0);
+		// the counts the streaming converter does not know are left out
+		assertEquals(1, registry.get("oas3.document.operations").summary().count());
+		assertEquals(7, registry.get("oas3.document.operations").summary().totalAmount(), 0);
+		assertEquals(1, registry.get("oas3.document.schemas").summary().count());
+		assertNull(registry.get("oas3.document.input.length").summary().getId().getBaseUnit());
+	}
+
+	// as the service records them
+	@Test
+	public void conversionThroughTheService() throws Exception {
+		OAS3DocumentService service = new OAS3DocumentService(new OAS3Cache<>(), new OAS3Converter());
+		service.setMetrics(metrics);
+		Json body = new Json(TestDocuments.read("orders.json"));
+		OAS3CacheKey key = new OAS3CacheKey("default", "/");
+		service.convert(key, body);
+		service.convert(key, body);
+
+		assertEquals(1, registry.get("oas3.cache").tag("group", "default").tag("result", "miss").counter().count(), 0);
+		assertEquals(1, registry.get("oas3.cache").tag("group", "default").tag("result", "hit").counter().count(), 0);
+		assertEquals(1, registry.get("oas3.conversion.stage").tag("stage", "convert").timer().count());
+		assertEquals(1, registry.get("oas3.document.size").summary().count());
+		assertTrue(registry.get("oas3.schema.memo").tag("result", "miss").counter().count() > 0);
+	}
+
+	private double count(String name, String tag, String value) {
+		return registry.get(name).tag("group", "orders").tag(tag, value).counter().count();
+	}
+}
@@ -0,0 +1,54 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.Test;
+import org.zerofour.swagger2.converter.TestDocuments;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class JSONTest {
+
+	// the bytes the converted model was written with before it was serialized straight to bytes
+	@Test
+	public void modelBytesMatchTheTreeRoundTrip() throws Exception {
+		OpenAPI openAPI = new OAS3Converter().convertOpenAPI(JSON.readValue(TestDocuments.read("orders.json")));
+
+		assertArrayEquals(JSON.readValue(openAPI).writeValueAsBytes(), JSON.writeValueAsBytes(openAPI));
+	}
+
+	@Test
+	public void integersKeepTheirValue() throws Exception {
+		JSON json = JSON.readValue("{\"int\":2147483647,\"long\":9223372036854775807,"
+			+ "\"big\":92233720368547758070,\"negative\":-9223372036854775809}");
+
+		assertEquals(Integer.valueOf(Integer.MAX_VALUE), json.get("int"));
+		assertEquals(Long.valueOf(Long.MAX_VALUE), json.get("long"));
+		assertEquals(new BigInteger("92233720368547758070"), json.get("big"));
+		assertEquals(new BigInteger("-9223372036854775809"), json.get("negative"));
+	}
+
+	@Test
+	public void decimalsAreBigDecimal() throws Exception {
+		JSON json = JSON.readValue("{\"price\":0.1,\"precise\":3.14159265358979323846264338327950288,"
+			+ "\"scale\":1.50,\"exponent\":1E+400}");
+
+		assertEquals(new BigDecimal("0.1"), json.get("price"));
+		assertEquals(new BigDecimal("3.14159265358979323846264338327950288"), json.get("precise"));
+		assertEquals(new BigDecimal("1.50"), json.get("scale"));
+		assertEquals(new BigDecimal("1E+400"), json.get("exponent"));
+	}
+
+	@Test
+	public void numbersRoundTrip() throws Exception {
+		String source = "{\"int\":42,\"long\":9223372036854775807,\"big\":92233720368547758070,"
+			+ "\"decimal\":0.1,\"precise\":3.14159265358979323846264338327950288,\"scale\":1.50,"
+			+ "\"list\":[1,4294967296,18446744073709551616,2.5]}";
+
+		assertEquals(source, JSON.readValue(source).writeValue());
+		assertEquals(source, new String(JSON.readValue(source).writeValueAsBytes(), "UTF-8"));
+	}
+}
@@ -0,0 +1,55 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import org.junit.Test;
+import org.zerofour.swagger2.converter.TestDocuments;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OAS3ConversionStateTest {
+
+	@Test
+	public void unchangedPathsAndSchemasAreReused() throws Exception {
+		String source = TestDocuments.read("orders.json");
+		OAS3Converter converter = new OAS3Converter();
+		OAS3ConversionState state = new OAS3ConversionState();
+
+		OpenAPI first = converter.convertOpenAPI(JSON.readValue(source), state);
+		JSON changed = JSON.readValue(source);
+		((JSON)((JSON)((JSON)changed.get("paths")).get("/orders")).get("get")).put("summary", "changed");
+		OpenAPI second = converter.convertOpenAPI(changed, state);
+
+		assertEquals(1, state.getConvertedPaths());
+		assertEquals(((JSON)changed.get("paths")).size() - 1, state.getReusedPaths());
+		assertEquals(0, state.getConvertedSchemas());
+		assertSame(first.getPaths().get("/orders/{id}"), second.getPaths().get("/orders/{id}"));
+		assertEquals(JSON.writeValueAsString(converter.convertOpenAPI(changed)), JSON.writeValueAsString(second));
+	}
+
+	@Test
+	public void reusedPathItemRefsAreCheckedAgain() throws Exception {
+		JSON oas2 = JSON.readValue(TestDocuments.read("orders.json"));
+		JSON pathItem = (JSON)((JSON)oas2.get("paths")).get("/orders/{id}");
+		OAS3ConversionState state = new OAS3ConversionState();
+		OAS3Converter converter = new OAS3Converter();
+		converter.convertOpenAPI(oas2, state);
+
+		// the path item is unchanged, the definition it refers to is gone
+		JSON withoutOrder = JSON.readValue(oas2.writeValue());
+		((JSON)withoutOrder.get("definitions")).remove("Order");
+		RefTable refs = new RefTable(withoutOrder);
+		OAS3ConversionState.Generation generation = state.begin(refs);
+		PathItem reused = generation.pathItem("/orders/{id}", JSON.readValue(pathItem.writeValue()), source -> {
+			throw new AssertionError("converted again");
+		});
+
+		assertSame(converter.convertOpenAPI(oas2, state).getPaths().get("/orders/{id}"), reused);
+		assertEquals(Collections.singleton("#/definitions/Order"), refs.getDanglingRefs());
+		assertTrue(new RefTable(oas2).getDanglingRefs().isEmpty());
+	}
+}
@@ -0,0 +1,80 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zerofour.swagger2.converter.TestDocuments;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * One parsed Swagger 2.0 tree converted from many threads at once, by a serial and a parallel converter.
+ */
+public class OAS3ConverterConcurrencyTest {
+	private static final int THREADS = 16;
+	private static final int CONVERSIONS = 200;
+	// more paths than the parallel threshold below, so the ForkJoinPool converter splits them in chunks
+	private static final int PATHS = 100;
+
+	private String source;
+	private ExecutorService callers;
+	private ForkJoinPool pool;
+
+	@Before
+	public void setUp() throws Exception {
+		JSON oas2 = JSON.readValue(TestDocuments.read("orders.json"));
+		JSON paths = (JSON)oas2.get("paths");
+		for(Map.Entry<String,Object> e: new ArrayList<>(paths.entrySet())) {
+			for(int i = 0; i < PATHS / paths.size(); i++) {
+				paths.put(e.getKey() + "/v" + i, e.getValue());
+			}
+		}
+		source = oas2.writeValue();
+		callers = Executors.newFixedThreadPool(THREADS);
+		pool = new ForkJoinPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		callers.shutdownNow();
+		pool.shutdownNow();
+	}
+
+	@Test
+	public void serialConverter() throws Exception {
+		assertConcurrentConversions(new OAS3Converter());
+	}
+
+	@Test
+	public void forkJoinPoolConverter() throws Exception {
+		assertConcurrentConversions(new OAS3Converter(pool, pool.getParallelism(), 8));
+	}
+
+	private void assertConcurrentConversions(OAS3Converter converter) throws Exception {
+		JSON oas2 = JSON.readValue(source);
+		byte[] expected = JSON.writeValueAsBytes(new OAS3Converter().convertOpenAPI(JSON.readValue(source)));
+
+		List<Future<byte[]>> results = new ArrayList<>();
+		Callable<byte[]> conversion = () -> JSON.writeValueAsBytes(converter.convertOpenAPI(oas2));
+		for(int i = 0; i < CONVERSIONS; i++) {
+			results.add(callers.submit(conversion));
+		}
+		for(Future<byte[]> result: results) {
+			assertArrayEquals(expected, result.get());
+		}
+
+		// the shared tree is only read
+		assertEquals(JSON.readValue(source), oas2);
+		assertEquals(source, oas2.writeValue());
+	}
+}
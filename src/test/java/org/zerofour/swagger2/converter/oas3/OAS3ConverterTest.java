@@ -0,0 +1,211 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Schema;
+import org.junit.Test;
+import org.zerofour.swagger2.converter.TestDocuments;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OAS3ConverterTest {
+	private static final String DECIMAL_PARAMETERS = "{\"swagger\":\"2.0\",\"paths\":{\"/items\":{\"get\":{"
+		+ "\"parameters\":["
+		+ "{\"name\":\"ratio\",\"in\":\"query\",\"type\":\"number\",\"minimum\":0.5,\"maximum\":99.95},"
+		+ "{\"name\":\"offset\",\"in\":\"query\",\"type\":\"integer\",\"format\":\"int64\","
+		+ "\"minimum\":-9223372036854775808,\"maximum\":18446744073709551615},"
+		+ "{\"name\":\"X-Rate\",\"in\":\"header\",\"type\":\"number\",\"minimum\":1}],"
+		+ "\"responses\":{\"200\":{\"description\":\"OK\",\"headers\":{\"X-Rate\":"
+		+ "{\"type\":\"number\",\"maximum\":0.25}}}}}}}}";
+	// definitions whose names need the JSON pointer escapes ~1 and ~0 in a $ref
+	private static final String ESCAPED_REFS = "{\"swagger\":\"2.0\",\"paths\":{\"/items\":{\"get\":{"
+		+ "\"responses\":{\"200\":{\"description\":\"OK\",\"schema\":{\"$ref\":\"#/definitions/api~1Item\"}}}}}},"
+		+ "\"definitions\":{"
+		+ "\"api/Item\":{\"type\":\"object\",\"properties\":{\"tag\":{\"$ref\":\"#/definitions/Tag~0v2\"}}},"
+		+ "\"Tag~v2\":{\"type\":\"string\"},"
+		+ "\"Unused\":{\"type\":\"string\"}}}";
+
+	@Test
+	public void decimalParameterBounds() throws Exception {
+		OpenAPI openAPI = new OAS3Converter().convertOpenAPI(JSON.readValue(DECIMAL_PARAMETERS));
+
+		Schema ratio = parameterSchema(openAPI, 0);
+		assertEquals(new BigDecimal("0.5"), ratio.getMinimum());
+		assertEquals(new BigDecimal("99.95"), ratio.getMaximum());
+		Schema offset = parameterSchema(openAPI, 1);
+		assertEquals(new BigDecimal("-9223372036854775808"), offset.getMinimum());
+		assertEquals(new BigDecimal("18446744073709551615"), offset.getMaximum());
+		assertEquals(new BigDecimal("1"), parameterSchema(openAPI, 2).getMinimum());
+		assertEquals(new BigDecimal("0.25"), openAPI.getPaths().get("/items").getGet().getResponses().get("200")
+			.getHeaders().get("X-Rate").getSchema().getMaximum());
+
+		String json = new String(JSON.writeValueAsBytes(openAPI), "UTF-8");
+		assertTrue(json, json.contains("\"maximum\":99.95,\"minimum\":0.5"));
+		assertTrue(json, json.contains("\"maximum\":18446744073709551615,\"minimum\":-9223372036854775808"));
+	}
+
+	@Test
+	public void decimalParameterBoundsStreaming() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new OAS3StreamingConverter().convertOpenAPI(new ByteArrayInputStream(DECIMAL_PARAMETERS.getBytes("UTF-8")), out);
+
+		// the streaming converter writes the top level fields in the order it reads them
+		assertEquals(JSON.readValue(JSON.writeValueAsString(new OAS3Converter().convertOpenAPI(JSON.readValue(DECIMAL_PARAMETERS)))),
+			JSON.readValue(new String(out.toByteArray(), "UTF-8")));
+	}
+
+	@Test
+	public void streamingMatchesTree() throws Exception {
+		assertStreamingMatchesTree(TestDocuments.read("orders.json"));
+	}
+
+	// a value that is not an array or object is skipped, not read past into the next field
+	@Test
+	public void streamingSkipsNullSections() throws Exception {
+		assertStreamingMatchesTree("{\"swagger\":\"2.0\",\"security\":null,"
+			+ "\"info\":{\"title\":\"Orders\",\"version\":\"1.0\"},\"tags\":null,\"externalDocs\":null,"
+			+ "\"paths\":{\"/orders\":{\"get\":{\"responses\":{\"200\":{\"description\":\"OK\"}}}}}}");
+		assertStreamingMatchesTree("{\"swagger\":\"2.0\",\"info\":null,\"security\":[],\"tags\":[],"
+			+ "\"paths\":{},\"externalDocs\":{\"url\":\"http://docs\"}}");
+	}
+
+	@Test
+	public void equalSchemasAreConvertedOnce() throws Exception {
+		OAS3ConversionStats stats = new OAS3ConversionStats();
+		OpenAPI openAPI = new OAS3Converter().convertOpenAPI(JSON.readValue(schemas(
+			"{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"string\"}}}",
+			"{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"string\"}}}")), (OAS3ConversionState)null, stats);
+
+		// the property and the object of the first schema
+		assertEquals(2, stats.getSchemaMemoMisses());
+		assertEquals(2, stats.getSchemaMemoHits());
+		assertSame(responseSchema(openAPI, "200"), responseSchema(openAPI, "201"));
+	}
+
+	// the keys of the enclosing schemas are equal but for the nested ones
+	@Test
+	public void schemasWithDifferentNestedSchemasStayDistinct() throws Exception {
+		OAS3ConversionStats stats = new OAS3ConversionStats();
+		OpenAPI openAPI = new OAS3Converter().convertOpenAPI(JSON.readValue(schemas(
+			"{\"type\":\"array\",\"items\":{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"string\"}}}}",
+			"{\"type\":\"array\",\"items\":{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"integer\"}}}}")), (OAS3ConversionState)null, stats);
+
+		assertEquals(0, stats.getSchemaMemoHits());
+		assertEquals(6, stats.getSchemaMemoMisses());
+		Schema string = ((ArraySchema)responseSchema(openAPI, "200")).getItems();
+		Schema integer = ((ArraySchema)responseSchema(openAPI, "201")).getItems();
+		assertNotSame(string, integer);
+		assertEquals("string", ((Schema)string.getProperties().get("a")).getType());
+		assertEquals("integer", ((Schema)integer.getProperties().get("a")).getType());
+	}
+
+	@Test
+	public void pruneComponents() throws Exception {
+		OAS3Converter converter = new OAS3Converter();
+		converter.setPruneComponents(true);
+		OpenAPI openAPI = converter.convertOpenAPI(JSON.readValue(TestDocuments.read("orders.json")));
+
+		assertEquals(new HashSet<>(Arrays.asList("Order", "Item", "Invoice", "Page\u00abInvoice\u00bb", "Error")),
+			openAPI.getComponents().getSchemas().keySet());
+		assertEquals(1, openAPI.getComponents().getResponses().size());
+		assertEquals(1, openAPI.getComponents().getParameters().size());
+		// only the operation security names a scheme
+		assertEquals(Collections.singleton("oauth"), openAPI.getComponents().getSecuritySchemes().keySet());
+	}
+
+	@Test
+	public void pruneComponentsKeepsTopLevelSecuritySchemes() throws Exception {
+		OAS3Converter converter = new OAS3Converter();
+		converter.setPruneComponents(true);
+		JSON key = new JSON();
+		key.put("key", Collections.emptyList());
+		JSON oas2 = JSON.readValue(TestDocuments.read("orders.json"));
+		oas2.put("security", Collections.singletonList(key));
+		OpenAPI openAPI = converter.convertOpenAPI(oas2);
+
+		assertEquals(new HashSet<>(Arrays.asList("key", "oauth")), openAPI.getComponents().getSecuritySchemes().keySet());
+	}
+
+	@Test
+	public void pruneComponentsFollowsEscapedRefs() throws Exception {
+		OAS3Converter converter = new OAS3Converter();
+		converter.setPruneComponents(true);
+		OpenAPI openAPI = converter.convertOpenAPI(JSON.readValue(ESCAPED_REFS));
+
+		assertEquals(new HashSet<>(Arrays.asList("api/Item", "Tag~v2")), openAPI.getComponents().getSchemas().keySet());
+		assertEquals("#/components/schemas/api~1Item", openAPI.getPaths().get("/items").getGet().getResponses()
+			.get("200").getContent().get("application/json").getSchema().get$ref());
+	}
+
+	// as the streaming converter checks them, once it has read every section
+	@Test
+	public void refTargetsCheckedAfterTheDocument() throws Exception {
+		RefTable refs = new RefTable();
+		refs.convert("#/definitions/api~1Item");
+		refs.convert("#/definitions/Missing");
+		refs.convert("#/responses/NotFound");
+		refs.convert("#/parameters/IdParam");
+		assertTrue(refs.getDanglingRefs().isEmpty());
+
+		Map<String,Set<String>> sections = new HashMap<>();
+		sections.put("definitions", Collections.singleton("api/Item"));
+		sections.put("parameters", Collections.singleton("IdParam"));
+		refs.checkTargets(sections);
+		assertEquals(new HashSet<>(Arrays.asList("#/definitions/Missing", "#/responses/NotFound")), refs.getDanglingRefs());
+	}
+
+	@Test
+	public void escapedRefsResolve() throws Exception {
+		JSON oas2 = JSON.readValue(ESCAPED_REFS);
+		RefTable refs = new RefTable(oas2);
+		refs.convert("#/definitions/api~1Item");
+		refs.convert("#/definitions/Tag~0v2");
+		refs.convert("#/definitions/Missing");
+
+		assertEquals(new HashSet<>(Arrays.asList("#/definitions/Missing")), refs.getDanglingRefs());
+		assertEquals("api/Item", References.entryName("#/definitions", "#/definitions/api~1Item"));
+		assertEquals("a~1b", References.entryName("#/definitions", "#/definitions/a~01b"));
+		assertNull(References.entryName("#/definitions", "#/parameters/api~1Item"));
+		assertNull(References.entryName("#/definitions", "#/definitionsX"));
+	}
+
+	private static void assertStreamingMatchesTree(String document) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue(new OAS3StreamingConverter().convertOpenAPI(new ByteArrayInputStream(document.getBytes("UTF-8")), out));
+
+		// compared as maps, as the streaming converter writes the top level fields in the order it reads them
+		OpenAPI tree = new OAS3Converter().convertOpenAPI(JSON.readValue(document));
+		assertEquals(JSON.readValue(JSON.writeValueAsString(tree)), JSON.readValue(new String(out.toByteArray(), "UTF-8")));
+	}
+
+	// a document whose 200 and 201 responses have the given schemas
+	private static String schemas(String schema200, String schema201) {
+		return "{\"swagger\":\"2.0\",\"paths\":{\"/items\":{\"get\":{\"produces\":[\"application/json\"],\"responses\":{"
+			+ "\"200\":{\"description\":\"OK\",\"schema\":" + schema200 + "},"
+			+ "\"201\":{\"description\":\"Created\",\"schema\":" + schema201 + "}}}}}}";
+	}
+
+	private static Schema responseSchema(OpenAPI openAPI, String status) {
+		return openAPI.getPaths().get("/items").getGet().getResponses().get(status).getContent()
+			.get("application/json").getSchema();
+	}
+
+	private static Schema parameterSchema(OpenAPI openAPI, int index) {
+		return openAPI.getPaths().get("/items").getGet().getParameters().get(index).getSchema();
+	}
+}
@@ -0,0 +1,151 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.Test;
+import org.zerofour.swagger2.converter.TestDocuments;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OAS3LimitsTest {
+	private static final int MAX_SCHEMA_DEPTH = 16;
+	private static final OAS3Limits LIMITS = new OAS3Limits(0, 0, MAX_SCHEMA_DEPTH, 0);
+
+	@Test
+	public void deepNestingIsRejectedWhileParsing() throws Exception {
+		// far deeper than the stack would allow a recursive parser
+		String document = nestedExtension(200000);
+		try(JsonParser parser = JSON.createParser(document)) {
+			JSON.readValue(parser, LIMITS.getMaxNestingDepth());
+			fail();
+		} catch (OAS3LimitExceededException e) {
+			assertEquals(OAS3Limits.Limit.SCHEMA_DEPTH, e.getLimit());
+		}
+	}
+
+	@Test
+	public void deepNestingIsNotRecursedWhileStreaming() throws Exception {
+		// fields that are not converted are skipped token by token
+		assertTrue(stream(nestedExtension(200000), LIMITS));
+		// in front of "swagger", where the fields are buffered until the version is known
+		assertLimit(OAS3Limits.Limit.SCHEMA_DEPTH, () -> stream(
+			"{\"x-deep\":" + nested(200000) + ",\"swagger\":\"2.0\",\"paths\":{}}", LIMITS));
+	}
+
+	@Test
+	public void schemasUpToTheLimitAreConverted() throws Exception {
+		String document = nestedSchemas(MAX_SCHEMA_DEPTH);
+		assertNotNull(convert(document, LIMITS));
+		assertTrue(stream(document, LIMITS));
+	}
+
+	@Test
+	public void schemasOverTheLimitAreRejected() throws Exception {
+		String document = nestedSchemas(MAX_SCHEMA_DEPTH + 1);
+		assertLimit(OAS3Limits.Limit.SCHEMA_DEPTH, () -> convert(document, LIMITS));
+		assertLimit(OAS3Limits.Limit.SCHEMA_DEPTH, () -> stream(document, LIMITS));
+	}
+
+	@Test
+	public void operations() throws Exception {
+		// orders.json has 7 operations
+		String document = TestDocuments.read("orders.json");
+		assertNotNull(convert(document, new OAS3Limits(0, 7, 0, 0)));
+		assertLimit(OAS3Limits.Limit.OPERATIONS, () -> convert(document, new OAS3Limits(0, 6, 0, 0)));
+		assertLimit(OAS3Limits.Limit.OPERATIONS, () -> stream(document, new OAS3Limits(0, 6, 0, 0)));
+	}
+
+	// head and patch are not converted, so they do not count
+	@Test
+	public void onlyConvertedOperationsCount() throws Exception {
+		String document = "{\"swagger\":\"2.0\",\"paths\":{\"/orders\":{"
+			+ "\"get\":{\"responses\":{\"200\":{\"description\":\"OK\"}}},"
+			+ "\"head\":{\"responses\":{\"200\":{\"description\":\"OK\"}}},"
+			+ "\"patch\":{\"responses\":{\"200\":{\"description\":\"OK\"}}}}}}";
+		assertNotNull(convert(document, new OAS3Limits(0, 1, 0, 0)));
+		assertTrue(stream(document, new OAS3Limits(0, 1, 0, 0)));
+	}
+
+	@Test
+	public void documentLength() {
+		new OAS3Limits(100, 0, 0, 0).checkDocumentLength(100);
+		assertLimit(OAS3Limits.Limit.DOCUMENT_LENGTH, () -> {
+			new OAS3Limits(100, 0, 0, 0).checkDocumentLength(101);
+			return null;
+		});
+	}
+
+	@Test
+	public void unlimited() throws Exception {
+		assertEquals(0, OAS3Limits.NONE.getMaxNestingDepth());
+		assertNotNull(convert(nestedSchemas(200), OAS3Limits.NONE));
+	}
+
+	// a body parameter whose schema nests depth schemas, alternating properties and items
+	private static String nestedSchemas(int depth) {
+		StringBuilder schema = new StringBuilder();
+		for(int i = 1; i < depth; i++) {
+			schema.append((i % 2 == 1)
+				? "{\"type\":\"object\",\"required\":[\"p\"],\"properties\":{\"p\":"
+				: "{\"type\":\"array\",\"items\":");
+		}
+		schema.append("{\"type\":\"string\",\"enum\":[\"a\",\"b\"]}");
+		for(int i = 1; i < depth; i++) {
+			schema.append((i % 2 == 1) ? "}}" : "}");
+		}
+		return "{\"swagger\":\"2.0\",\"paths\":{\"/items\":{\"post\":{"
+			+ "\"parameters\":[{\"name\":\"body\",\"in\":\"body\",\"schema\":" + schema + "}],"
+			+ "\"responses\":{\"200\":{\"description\":\"OK\"}}}}}}";
+	}
+
+	private static String nestedExtension(int depth) {
+		return "{\"swagger\":\"2.0\",\"paths\":{},\"x-deep\":" + nested(depth) + "}";
+	}
+
+	private static String nested(int depth) {
+		StringBuilder json = new StringBuilder(2 * depth);
+		for(int i = 0; i < depth; i++) {
+			json.append('[');
+		}
+		for(int i = 0; i < depth; i++) {
+			json.append(']');
+		}
+		return json.toString();
+	}
+
+	private static Object convert(String document, OAS3Limits limits) throws IOException {
+		OAS3Converter converter = new OAS3Converter();
+		converter.setLimits(limits);
+		try(JsonParser parser = JSON.createParser(document)) {
+			return converter.convertOpenAPI(JSON.readValue(parser, limits.getMaxNestingDepth()));
+		}
+	}
+
+	private static boolean stream(String document, OAS3Limits limits) throws IOException {
+		OAS3Converter converter = new OAS3Converter();
+		converter.setLimits(limits);
+		return new OAS3StreamingConverter(converter).convertOpenAPI(
+			new ByteArrayInputStream(document.getBytes("UTF-8")), new ByteArrayOutputStream());
+	}
+
+	private static void assertLimit(OAS3Limits.Limit limit, Conversion conversion) {
+		try {
+			conversion.run();
+			fail();
+		} catch (OAS3LimitExceededException e) {
+			assertEquals(limit, e.getLimit());
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private interface Conversion {
+		Object run() throws IOException;
+	}
+}
@@ -0,0 +1,59 @@
+package org.zerofour.swagger2.converter.oas3;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.tags.Tag;
+import org.junit.Test;
+import org.zerofour.swagger2.converter.TestDocuments;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OAS3PathFilterTest {
+
+	@Test
+	public void emptyFilterIsNull() {
+		assertNull(OAS3PathFilter.of(null, ""));
+		assertEquals(new OAS3PathFilter("billing", null), OAS3PathFilter.of("billing", ""));
+	}
+
+	@Test
+	public void pathPrefixMatchesSegments() {
+		OAS3PathFilter filter = new OAS3PathFilter(null, "/orders");
+
+		assertTrue(filter.matchesPath("/orders"));
+		assertTrue(filter.matchesPath("/orders/{id}"));
+		assertFalse(filter.matchesPath("/ordersArchive"));
+	}
+
+	@Test
+	public void filterByTag() throws Exception {
+		JSON oas2 = JSON.readValue(TestDocuments.read("orders.json"));
+		OpenAPI openAPI = new OAS3Converter().convertOpenAPI(oas2, new OAS3PathFilter("billing", null));
+
+		assertEquals(new HashSet<>(Arrays.asList("/billing/upload", "/billing/invoices")), openAPI.getPaths().keySet());
+		// the untagged operation is not selected
+		assertNull(openAPI.getPaths().get("/billing/invoices").getOptions());
+		assertEquals(new HashSet<>(Arrays.asList("Invoice", "Page\u00abInvoice\u00bb")),
+			openAPI.getComponents().getSchemas().keySet());
+		assertEquals(Arrays.asList("billing"), openAPI.getTags().stream().map(Tag::getName).collect(Collectors.toList()));
+		// the whole document is not changed
+		assertEquals(JSON.readValue(TestDocuments.read("orders.json")), oas2);
+	}
+
+	@Test
+	public void filterByPathPrefix() throws Exception {
+		JSON oas2 = JSON.readValue(TestDocuments.read("orders.json"));
+		OpenAPI openAPI = new OAS3Converter().convertOpenAPI(oas2, new OAS3PathFilter(null, "/orders"));
+
+		assertEquals(new HashSet<>(Arrays.asList("/orders", "/orders/{id}")), openAPI.getPaths().keySet());
+		assertEquals(new HashSet<>(Arrays.asList("Order", "Item", "Error")), openAPI.getComponents().getSchemas().keySet());
+		assertEquals(1, openAPI.getComponents().getResponses().size());
+		assertEquals(1, openAPI.getComponents().getParameters().size());
+	}
+}
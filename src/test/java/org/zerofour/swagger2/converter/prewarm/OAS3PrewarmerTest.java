@@ -0,0 +1,116 @@
+package org.zerofour.swagger2.converter.prewarm;
+
+import io.swagger.models.Swagger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.zerofour.swagger2.converter.TestMapper;
+import org.zerofour.swagger2.converter.advice.OAS3ConverterAdvice;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import org.zerofour.swagger2.converter.web.OAS3Controller;
+import springfox.documentation.builders.DocumentationBuilder;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class OAS3PrewarmerTest {
+	private OAS3DocumentService service;
+	private DocumentationCache documentationCache;
+	private TestMapper mapper;
+	private StaticApplicationContext context;
+	private OAS3Prewarmer prewarmer;
+
+	@Before
+	public void setUp() {
+		service = new OAS3DocumentService();
+		documentationCache = new DocumentationCache();
+		documentationCache.addDocumentation(new DocumentationBuilder().name(Docket.DEFAULT_GROUP_NAME).build());
+		documentationCache.addDocumentation(new DocumentationBuilder().name("orders").build());
+		mapper = new TestMapper();
+		context = new StaticApplicationContext();
+	}
+
+	@After
+	public void tearDown() {
+		if(prewarmer != null) {
+			prewarmer.destroy();
+		}
+	}
+
+	@Test
+	public void everyGroupIsCached() throws Exception {
+		prewarm(mapper);
+
+		assertEquals(2, prewarmer.getTotalGroups());
+		assertEquals(2, prewarmer.getConvertedGroups());
+		assertEquals(0, prewarmer.getFailedGroups());
+		assertNotNull(service.getCached(new OAS3CacheKey(Docket.DEFAULT_GROUP_NAME, "/")));
+		assertNotNull(service.getCached(new OAS3CacheKey("orders", "/")));
+	}
+
+	// the key of a request to /v3/api-docs without forwarded headers, so it is served without mapping the model
+	@Test
+	public void firstRequestIsServedFromTheCache() throws Exception {
+		prewarm(mapper);
+		OAS3Controller controller = new OAS3Controller(new MockEnvironment(), new OAS3ConverterAdvice(service),
+			documentationCache, mapper);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.getDocumentation("orders", request("orders"), response);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(2, mapper.getMapped());
+	}
+
+	@Test
+	public void completesWhenAGroupFails() throws Exception {
+		prewarm(new TestMapper() {
+			@Override
+			public Swagger mapDocumentation(Documentation documentation) {
+				if(documentation.getGroupName().equals("orders")) {
+					throw new IllegalStateException("orders");
+				}
+				return super.mapDocumentation(documentation);
+			}
+		});
+
+		assertEquals(1, prewarmer.getConvertedGroups());
+		assertEquals(1, prewarmer.getFailedGroups());
+	}
+
+	@Test
+	public void childContextRefreshIsIgnored() {
+		prewarmer = new OAS3Prewarmer(service, documentationCache, mapper);
+		prewarmer.setApplicationContext(context);
+		prewarmer.onApplicationEvent(new ContextRefreshedEvent(new StaticApplicationContext(context)));
+
+		assertEquals(0, mapper.getMapped());
+		assertFalse(prewarmer.isComplete());
+	}
+
+	private void prewarm(TestMapper mapper) throws Exception {
+		prewarmer = new OAS3Prewarmer(service, documentationCache, mapper);
+		prewarmer.setApplicationContext(context);
+		prewarmer.onApplicationEvent(new ContextRefreshedEvent(context));
+		prewarmer.getCompletion().get(10, TimeUnit.SECONDS);
+		assertTrue(prewarmer.isComplete());
+	}
+
+	private static MockHttpServletRequest request(String group) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v3/api-docs");
+		request.setParameter("group", group);
+		return request;
+	}
+}
@@ -0,0 +1,123 @@
+package org.zerofour.swagger2.converter.reactive;
+
+import io.swagger.models.Swagger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.zerofour.swagger2.converter.TestMapper;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OAS3ReactiveHandlerTest {
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	private final Swagger swagger = new TestMapper().mapDocumentation(null).basePath(null);
+	private OAS3DocumentService service;
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		service = new OAS3DocumentService();
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void documentOfTheGroup() {
+		ServerResponse response = handle(new OAS3ReactiveHandler(service, group -> swagger, executor),
+			MockServerHttpRequest.get("/v3/api-docs"));
+
+		assertEquals(HttpStatus.OK, response.statusCode());
+		assertTrue(response.headers().getETag() != null);
+		// the basePath of the request is set on a copy of the provider's model
+		assertNull(swagger.getBasePath());
+	}
+
+	@Test
+	public void unknownGroupIsNotFound() {
+		ServerResponse response = handle(new OAS3ReactiveHandler(service, group -> null, executor),
+			MockServerHttpRequest.get("/v3/api-docs?group=missing"));
+
+		assertEquals(HttpStatus.NOT_FOUND, response.statusCode());
+	}
+
+	@Test
+	public void concurrentRequestsWaitForOneConversion() throws Exception {
+		CountDownLatch converting = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger provided = new AtomicInteger();
+		OAS3ReactiveHandler handler = new OAS3ReactiveHandler(service, group -> {
+			provided.incrementAndGet();
+			converting.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return swagger;
+		}, executor);
+
+		CompletableFuture<ServerResponse> first = handler.handle(request(MockServerHttpRequest.get("/v3/api-docs"))).toFuture();
+		assertTrue(converting.await(10, TimeUnit.SECONDS));
+		CompletableFuture<ServerResponse> second = handler.handle(request(MockServerHttpRequest.get("/v3/api-docs"))).toFuture();
+		assertFalse(second.isDone());
+		release.countDown();
+
+		assertEquals(HttpStatus.OK, first.get(10, TimeUnit.SECONDS).statusCode());
+		assertEquals(HttpStatus.OK, second.get(10, TimeUnit.SECONDS).statusCode());
+		assertEquals(first.get().headers().getETag(), second.get().headers().getETag());
+		assertEquals(1, provided.get());
+	}
+
+	@Test
+	public void notModified() {
+		OAS3ReactiveHandler handler = new OAS3ReactiveHandler(service, group -> swagger, executor);
+		String etag = handle(handler, MockServerHttpRequest.get("/v3/api-docs")).headers().getETag();
+
+		ServerResponse response = handle(handler, MockServerHttpRequest.get("/v3/api-docs")
+			.header(HttpHeaders.IF_NONE_MATCH, etag));
+		assertEquals(HttpStatus.NOT_MODIFIED, response.statusCode());
+		assertEquals(etag, response.headers().getETag());
+	}
+
+	@Test
+	public void rejectedConversionIsUnavailable() {
+		OAS3ReactiveHandler handler = new OAS3ReactiveHandler(service, group -> swagger, task -> {
+			throw new RejectedExecutionException();
+		});
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, handle(handler, MockServerHttpRequest.get("/v3/api-docs")).statusCode());
+	}
+
+	private static ServerResponse handle(OAS3ReactiveHandler handler, MockServerHttpRequest.BaseBuilder<?> request) {
+		return handler.handle(request(request)).block(TIMEOUT);
+	}
+
+	private static ServerRequest request(MockServerHttpRequest.BaseBuilder<?> request) {
+		return ServerRequest.create(MockServerWebExchange.from(request), HandlerStrategies.withDefaults().messageReaders());
+	}
+}
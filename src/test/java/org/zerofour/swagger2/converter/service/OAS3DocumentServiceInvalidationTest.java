@@ -0,0 +1,100 @@
+package org.zerofour.swagger2.converter.service;
+
+import io.swagger.models.Info;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zerofour.swagger2.converter.TestDocuments;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+import springfox.documentation.spring.web.json.Json;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * A conversion in progress while its group is invalidated.
+ */
+public class OAS3DocumentServiceInvalidationTest {
+	private static final OAS3CacheKey KEY = new OAS3CacheKey("default", "/");
+
+	private OAS3DocumentService service;
+	private ExecutorService executor;
+	private CountDownLatch reading;
+	private CountDownLatch invalidated;
+
+	@Before
+	public void setUp() {
+		service = new OAS3DocumentService();
+		executor = Executors.newSingleThreadExecutor();
+		reading = new CountDownLatch(1);
+		invalidated = new CountDownLatch(1);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void staleConversionIsNotCached() throws Exception {
+		Future<OAS3Document> stale = executor.submit(() -> service.convert(KEY, this::staleModel));
+		reading.await(10, TimeUnit.SECONDS);
+		service.invalidate(KEY.getGroup());
+		invalidated.countDown();
+
+		// returned to the request that waited for it, but not kept
+		assertNotNull(stale.get(10, TimeUnit.SECONDS));
+		assertNull(service.getCached(KEY));
+	}
+
+	@Test
+	public void laterRequestDoesNotWaitForStaleConversion() throws Exception {
+		Future<OAS3Document> stale = executor.submit(() -> service.convert(KEY, this::staleModel));
+		reading.await(10, TimeUnit.SECONDS);
+		service.invalidate(null);
+
+		// converted while the stale conversion is still blocked
+		OAS3Document fresh = service.convert(KEY, new Json(TestDocuments.read("orders.json")));
+		invalidated.countDown();
+
+		assertNotNull(fresh);
+		assertNotSame(fresh, stale.get(10, TimeUnit.SECONDS));
+		assertSame(fresh, service.getCached(KEY));
+	}
+
+	@Test
+	public void otherGroupsConversionIsCached() throws Exception {
+		Future<OAS3Document> converting = executor.submit(() -> service.convert(KEY, this::staleModel));
+		reading.await(10, TimeUnit.SECONDS);
+		service.invalidate("other");
+		invalidated.countDown();
+
+		assertSame(converting.get(10, TimeUnit.SECONDS), service.getCached(KEY));
+	}
+
+	// the documentation as read before the invalidation, returned once the invalidation happened
+	private Swagger staleModel() {
+		reading.countDown();
+		try {
+			invalidated.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return new Swagger()
+			.info(new Info().title("stale").version("1.0"))
+			.path("/stale", new Path().get(new Operation().response(200, new Response().description("OK"))));
+	}
+}
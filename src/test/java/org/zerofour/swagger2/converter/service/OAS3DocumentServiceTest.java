@@ -0,0 +1,111 @@
+package org.zerofour.swagger2.converter.service;
+
+import io.swagger.models.Info;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zerofour.swagger2.converter.cache.OAS3CacheKey;
+import org.zerofour.swagger2.converter.cache.OAS3Document;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Blocking and non-blocking requests, as of Spring MVC and WebFlux, for the same document.
+ */
+public class OAS3DocumentServiceTest {
+	private static final OAS3CacheKey KEY = new OAS3CacheKey("default", "/");
+
+	private OAS3DocumentService service;
+	private ExecutorService executor;
+	private AtomicInteger reads;
+	private CountDownLatch reading;
+	private CountDownLatch release;
+
+	@Before
+	public void setUp() {
+		service = new OAS3DocumentService();
+		executor = Executors.newFixedThreadPool(2);
+		reads = new AtomicInteger();
+		reading = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void asyncAndBlockingRequestsShareOneConversion() throws Exception {
+		CompletableFuture<OAS3Document> async = service.convertAsync(KEY, this::model, executor);
+		reading.await(10, TimeUnit.SECONDS);
+		Future<OAS3Document> blocking = executor.submit(() -> service.convert(KEY, this::model));
+		assertSame(async, service.convertAsync(KEY, this::model, executor));
+		release.countDown();
+
+		OAS3Document document = async.get(10, TimeUnit.SECONDS);
+		assertNotNull(document);
+		assertSame(document, blocking.get(10, TimeUnit.SECONDS));
+		assertSame(document, service.getCached(KEY));
+		assertEquals(1, reads.get());
+	}
+
+	@Test
+	public void cachedDocumentIsNotConvertedAgain() throws Exception {
+		release.countDown();
+		OAS3Document document = service.convert(KEY, this::model);
+
+		CompletableFuture<OAS3Document> async = service.convertAsync(KEY, this::model, executor);
+		assertTrue(async.isDone());
+		assertSame(document, async.get());
+		assertEquals(1, reads.get());
+	}
+
+	@Test
+	public void rejectedConversionIsNotKept() throws Exception {
+		CompletableFuture<OAS3Document> rejected = service.convertAsync(KEY, this::model, task -> {
+			throw new RejectedExecutionException();
+		});
+		try {
+			rejected.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+
+		release.countDown();
+		assertNotNull(service.convertAsync(KEY, this::model, executor).get(10, TimeUnit.SECONDS));
+		assertEquals(1, reads.get());
+	}
+
+	private Swagger model() {
+		reads.incrementAndGet();
+		reading.countDown();
+		try {
+			release.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return new Swagger()
+			.info(new Info().title("orders").version("1.0"))
+			.path("/orders", new Path().get(new Operation().response(200, new Response().description("OK"))));
+	}
+}
@@ -0,0 +1,148 @@
+package org.zerofour.swagger2.converter.web;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.zerofour.swagger2.converter.TestMapper;
+import org.zerofour.swagger2.converter.advice.OAS3ConverterAdvice;
+import org.zerofour.swagger2.converter.cache.OAS3Cache;
+import org.zerofour.swagger2.converter.oas3.JSON;
+import org.zerofour.swagger2.converter.oas3.OAS3Converter;
+import org.zerofour.swagger2.converter.oas3.OAS3Limits;
+import org.zerofour.swagger2.converter.service.OAS3DocumentService;
+import springfox.documentation.builders.DocumentationBuilder;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * /v3/api-docs, from the springfox Swagger model of a group to the response.
+ */
+public class OAS3ControllerTest {
+	private DocumentationCache documentationCache;
+	private TestMapper mapper;
+
+	@Before
+	public void setUp() {
+		documentationCache = new DocumentationCache();
+		documentationCache.addDocumentation(new DocumentationBuilder().name(Docket.DEFAULT_GROUP_NAME).build());
+		mapper = new TestMapper();
+	}
+
+	@Test
+	public void documentOfTheDefaultGroup() throws Exception {
+		OAS3Controller controller = controller(new OAS3DocumentService());
+		MockHttpServletResponse response = getDocumentation(controller, null, request());
+
+		assertEquals(200, response.getStatus());
+		assertEquals(MediaType.APPLICATION_JSON_UTF8_VALUE, response.getContentType());
+		assertTrue(response.getHeader(HttpHeaders.ETAG) != null);
+		JSON document = JSON.readValue(response.getContentAsString());
+		assertEquals("3.0.1", document.get("openapi"));
+		assertEquals("Orders", ((JSON)document.get("info")).get("title"));
+		assertEquals("/api", ((JSON)((List<?>)document.get("servers")).get(0)).get("url"));
+		assertTrue(((JSON)document.get("paths")).containsKey("/orders"));
+
+		// converted once
+		assertEquals(200, getDocumentation(controller, null, request()).getStatus());
+		assertEquals(1, mapper.getMapped());
+	}
+
+	@Test
+	public void documentPerGroupAndBasePath() throws Exception {
+		documentationCache.addDocumentation(new DocumentationBuilder().name("orders").build());
+		OAS3DocumentService service = new OAS3DocumentService();
+		OAS3Controller controller = controller(service);
+		MockHttpServletRequest prefixed = request();
+		prefixed.addHeader("X-Forwarded-Prefix", "/v2");
+
+		assertEquals("/api", serverUrl(getDocumentation(controller, null, request())));
+		assertEquals("/api", serverUrl(getDocumentation(controller, "orders", request())));
+		assertEquals("/v2", serverUrl(getDocumentation(controller, null, prefixed)));
+		assertEquals(3, mapper.getMapped());
+		assertEquals(3, service.getCache().size());
+	}
+
+	// the document names no host, so every Host is served the same entry
+	@Test
+	public void documentIsSharedByHosts() throws Exception {
+		OAS3DocumentService service = new OAS3DocumentService();
+		OAS3Controller controller = controller(service);
+		MockHttpServletRequest other = request();
+		other.setServerName("docs.example.org");
+		MockHttpServletRequest forwarded = request();
+		forwarded.addHeader("X-Forwarded-Host", "proxy.example.com");
+
+		assertEquals(200, getDocumentation(controller, null, request()).getStatus());
+		assertEquals(200, getDocumentation(controller, null, other).getStatus());
+		assertEquals(200, getDocumentation(controller, null, forwarded).getStatus());
+		assertEquals(1, mapper.getMapped());
+		assertEquals(1, service.getCache().size());
+	}
+
+	@Test
+	public void unknownGroupIsNotFound() throws Exception {
+		MockHttpServletResponse response = getDocumentation(controller(new OAS3DocumentService()), "missing", request());
+
+		assertEquals(404, response.getStatus());
+		assertEquals(0, mapper.getMapped());
+	}
+
+	@Test
+	public void documentThatCanNotBeConvertedIsAnError() throws Exception {
+		OAS3Converter converter = new OAS3Converter();
+		converter.setLimits(new OAS3Limits(0, 1, 0, 0));
+		OAS3Controller controller = controller(new OAS3DocumentService(new OAS3Cache<>(), converter));
+		MockHttpServletResponse response = getDocumentation(controller, null, request());
+
+		assertEquals(500, response.getStatus());
+		assertEquals(1, mapper.getMapped());
+	}
+
+	@Test
+	public void yamlOnRequest() throws Exception {
+		OAS3DocumentService service = new OAS3DocumentService();
+		service.setYaml(true);
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.ACCEPT, "application/yaml");
+		MockHttpServletResponse response = getDocumentation(controller(service), null, request);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("application/yaml;charset=UTF-8", response.getContentType());
+		assertTrue(response.getContentAsString().startsWith("openapi:"));
+	}
+
+	private static String serverUrl(MockHttpServletResponse response) throws Exception {
+		assertEquals(200, response.getStatus());
+		JSON document = JSON.readValue(response.getContentAsString());
+		return (String)((JSON)((List<?>)document.get("servers")).get(0)).get("url");
+	}
+
+	private OAS3Controller controller(OAS3DocumentService service) {
+		return new OAS3Controller(new MockEnvironment(), new OAS3ConverterAdvice(service), documentationCache, mapper);
+	}
+
+	private static MockHttpServletRequest request() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v3/api-docs");
+		request.setServerName("docs.example.com");
+		return request;
+	}
+
+	private static MockHttpServletResponse getDocumentation(OAS3Controller controller, String group,
+	                                                        MockHttpServletRequest request) throws Exception {
+		if(group != null) {
+			request.setParameter("group", group);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.getDocumentation(group, request, response);
+		return response;
+	}
+}